@@ -0,0 +1,37 @@
+package LockFreeStack;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * StackBenchmarkRunner
+ *
+ * Runs the stack suite with the GC profiler (same as -prof gc): StackMixBenchmark at 1, 2, 4 .. maxThreads
+ * threads, then the producer/consumer groups.
+ *
+ * Usage: java -cp target/benchmarks.jar LockFreeStack.StackBenchmarkRunner [maxThreads]
+ */
+public class StackBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+
+        for (int threads = 1; threads <= maxThreads; threads <<= 1) {
+            Options mix = new OptionsBuilder()
+                    .include(StackMixBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(mix).run();
+        }
+
+        Options groups = new OptionsBuilder()
+                .include(StackProducerConsumerBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(groups).run();
+    }
+}
@@ -0,0 +1,78 @@
+package LockFreeStack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StackMixBenchmark
+ *
+ * Symmetric load: every thread runs the same push/pop mix against one shared stack.
+ * Thread count comes from -t (StackBenchmarkRunner sweeps 1..N); add -prof gc for gc.alloc.rate.norm
+ * (bytes per op): TreiberStack allocates a Node per push, PooledTreiberStack should show ~0.
+ *
+ * Mix: op i of a thread pushes if (i % 100) < pushPercent, otherwise pops (an empty pop counts as an op).
+ * Depth guard: a thread whose own pushes exceed its own pops by MAX_DEPTH_PER_THREAD pops instead, so
+ * push-heavy mixes cannot grow the stack without bound; the stack never holds more than
+ * threads * MAX_DEPTH_PER_THREAD elements. Each iteration starts from a fresh, empty stack.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StackMixBenchmark {
+    static final int MAX_DEPTH_PER_THREAD = 1 << 14;
+    static final Integer VALUE = 42;     // one cached box: measure the stack, not Integer.valueOf
+
+    @Param({"TreiberStack", "EliminationBackoffStack", "PooledTreiberStack", "SynchronizedStack",
+            "ConcurrentLinkedDeque"})
+    public String impl;
+
+    @Param({"20", "50", "80"})
+    public int pushPercent;
+
+    private StackOps stack;
+
+    @Setup(Level.Iteration)
+    public void freshStack(BenchmarkParams params) {
+        // pool: every thread's depth bound + its 32-node local cache
+        stack = StackOps.create(impl, params.getThreads() * (MAX_DEPTH_PER_THREAD + 32));
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        long ops;
+        long depth;     // own pushes - own successful pops
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            depth = 0;
+        }
+    }
+
+    @Benchmark
+    public Integer pushPop(ThreadState t) {
+        if ((t.ops++ % 100) < pushPercent && t.depth < MAX_DEPTH_PER_THREAD) {
+            stack.push(VALUE);
+            t.depth++;
+            return VALUE;
+        }
+        Integer v = stack.pop();
+        if (v != null) t.depth--;
+        return v;
+    }
+}
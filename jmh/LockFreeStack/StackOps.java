@@ -0,0 +1,60 @@
+package LockFreeStack;
+
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * StackOps
+ *
+ * Minimal push/pop view so every stack implementation runs through the same benchmark methods.
+ */
+interface StackOps {
+    void push(Integer v);
+
+    Integer pop();
+
+    /**
+     * impl is one of the @Param values of the benchmarks. capacity only matters for PooledTreiberStack
+     * (fixed node pool); the others grow on demand.
+     */
+    static StackOps create(String impl, int capacity) {
+        switch (impl) {
+            case "TreiberStack": {
+                TreiberStack<Integer> s = new TreiberStack<>();
+                return new StackOps() {
+                    @Override public void push(Integer v) { s.push(v); }
+                    @Override public Integer pop() { return s.pop(); }
+                };
+            }
+            case "EliminationBackoffStack": {
+                EliminationBackoffStack<Integer> s = new EliminationBackoffStack<>();
+                return new StackOps() {
+                    @Override public void push(Integer v) { s.push(v); }
+                    @Override public Integer pop() { return s.pop(); }
+                };
+            }
+            case "PooledTreiberStack": {
+                PooledTreiberStack<Integer> s = new PooledTreiberStack<>(capacity);
+                return new StackOps() {
+                    @Override public void push(Integer v) { s.push(v); }
+                    @Override public Integer pop() { return s.pop(); }
+                };
+            }
+            case "SynchronizedStack": {
+                SynchronizedStack<Integer> s = new SynchronizedStack<>();
+                return new StackOps() {
+                    @Override public void push(Integer v) { s.push(v); }
+                    @Override public Integer pop() { return s.pop(); }
+                };
+            }
+            case "ConcurrentLinkedDeque": {
+                ConcurrentLinkedDeque<Integer> s = new ConcurrentLinkedDeque<>();
+                return new StackOps() {
+                    @Override public void push(Integer v) { s.push(v); }
+                    @Override public Integer pop() { return s.pollFirst(); }
+                };
+            }
+            default:
+                throw new IllegalArgumentException("unknown stack: " + impl);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package LockFreeStack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StackProducerConsumerBenchmark
+ *
+ * Asymmetric load: dedicated producer threads (push only) and consumer threads (pop only) per @Group,
+ * in 1:1, 1:3 and 3:1 ratios. JMH reports each side and the group total; -prof gc adds bytes per op.
+ * A consumer's pop on an empty stack still counts as an op (it is the cost a polling consumer pays).
+ *
+ * Depth guard: the group counts the real stack depth (+1 per push, -1 per successful pop on either
+ * side). A producer that finds it at MAX_DEPTH spins once instead of pushing, the mirror image of a
+ * consumer polling an empty stack; it never pops, so producer-heavy groups stay bounded without
+ * turning producers into consumers. Every op of every impl pays the same counter update.
+ * Each iteration starts from a fresh, empty stack.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StackProducerConsumerBenchmark {
+    static final int MAX_DEPTH = 1 << 14;
+    static final Integer VALUE = 42;
+
+    @State(Scope.Group)
+    public static class GroupState {
+        @Param({"TreiberStack", "EliminationBackoffStack", "PooledTreiberStack", "SynchronizedStack",
+                "ConcurrentLinkedDeque"})
+        public String impl;
+
+        StackOps stack;
+        final AtomicLong depth = new AtomicLong();
+
+        @Setup(Level.Iteration)
+        public void freshStack(BenchmarkParams params) {
+            // headroom: producers may overshoot MAX_DEPTH by one each, plus PooledTreiberStack's per-thread caches
+            stack = StackOps.create(impl, MAX_DEPTH + params.getThreads() * 64);
+            depth.set(0);
+        }
+    }
+
+    // ---------------- 1 producer : 1 consumer ----------------
+    @Benchmark
+    @Group("p1c1")
+    @GroupThreads(1)
+    public Integer p1c1Producer(GroupState g) {
+        return produce(g);
+    }
+
+    @Benchmark
+    @Group("p1c1")
+    @GroupThreads(1)
+    public Integer p1c1Consumer(GroupState g) {
+        return consume(g);
+    }
+
+    // ---------------- 1 producer : 3 consumers ----------------
+    @Benchmark
+    @Group("p1c3")
+    @GroupThreads(1)
+    public Integer p1c3Producer(GroupState g) {
+        return produce(g);
+    }
+
+    @Benchmark
+    @Group("p1c3")
+    @GroupThreads(3)
+    public Integer p1c3Consumer(GroupState g) {
+        return consume(g);
+    }
+
+    // ---------------- 3 producers : 1 consumer ----------------
+    @Benchmark
+    @Group("p3c1")
+    @GroupThreads(3)
+    public Integer p3c1Producer(GroupState g) {
+        return produce(g);
+    }
+
+    @Benchmark
+    @Group("p3c1")
+    @GroupThreads(1)
+    public Integer p3c1Consumer(GroupState g) {
+        return consume(g);
+    }
+
+    private static Integer produce(GroupState g) {
+        if (g.depth.get() >= MAX_DEPTH) {
+            Thread.onSpinWait();
+            return null;
+        }
+        g.stack.push(VALUE);
+        g.depth.incrementAndGet();
+        return VALUE;
+    }
+
+    private static Integer consume(GroupState g) {
+        Integer v = g.stack.pop();
+        if (v != null) g.depth.decrementAndGet();
+        return v;
+    }
+}
@@ -1,5 +1,11 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -58,6 +64,12 @@ import java.util.concurrent.locks.ReentrantLock;
     notFull
     notEmpty
    -This is how real Java ArrayBlockingQueue works.
+   - Version C (Scale): power-of-two ring buffer + separate put/take locks
+   - Producers and consumers stop blocking each other, no allocation per item.
+   -See RingBufferBlockingQueue.
+   - Version D (Lock-free): per-slot sequence numbers + CAS on head/tail, spin → yield → park
+   - No lock handoff at all on the hot path.
+   -See LockFreeBoundedBlockingQueue.
  */
 public class BoundedBlockingQueue<T> {
     private final Queue<T> queue =new LinkedList<>();
@@ -85,6 +97,61 @@ public class BoundedBlockingQueue<T> {
         return queue.size();
     }
 
+    // ------------ BATCH OPERATIONS ------------
+    // One monitor acquisition + one notifyAll() per batch instead of per item.
+
+    /**
+     * Moves up to maxElements available items into c. Never blocks.
+     * Returns the number of items moved.
+     */
+    public synchronized int drainTo(Collection<? super T> c, int maxElements) {
+        Objects.requireNonNull(c);
+        int n = 0;
+        while (n < maxElements && !queue.isEmpty()) {
+            c.add(queue.remove());
+            n++;
+        }
+        if (n > 0) {
+            notifyAll();    // one wakeup for the whole batch
+        }
+        return n;
+    }
+
+    /**
+     * Waits up to timeout for at least one item, then takes up to maxElements.
+     * Returns an empty list if the timeout elapsed.
+     */
+    public synchronized List<T> dequeueBatch(int maxElements, long timeout, TimeUnit unit) throws InterruptedException {
+        if (maxElements <= 0) throw new IllegalArgumentException("maxElements must be > 0");
+        long nanos = unit.toNanos(timeout);
+        long deadline = System.nanoTime() + nanos;
+        while (queue.isEmpty()) {
+            if (nanos <= 0L) return List.of();
+            TimeUnit.NANOSECONDS.timedWait(this, nanos);
+            nanos = deadline - System.nanoTime();
+        }
+        List<T> batch = new ArrayList<>(Math.min(maxElements, queue.size()));
+        drainTo(batch, maxElements);
+        return batch;
+    }
+
+    /**
+     * Enqueues every item, blocking while the queue is full.
+     * Fills all free slots per acquisition; the batch is NOT atomic if it has to wait for space.
+     */
+    public synchronized void enqueueAll(Collection<? extends T> items) throws InterruptedException {
+        Iterator<? extends T> it = items.iterator();
+        while (it.hasNext()) {
+            while (queue.size() == capacity) {
+                wait();
+            }
+            while (it.hasNext() && queue.size() < capacity) {
+                queue.add(it.next());
+            }
+            notifyAll();
+        }
+    }
+
     public static void main(String[] args) {
         BoundedBlockingQueue<Integer> queue = new BoundedBlockingQueue<>(5);
         // Example usage with multiple producers and consumers can be added here.
@@ -0,0 +1,171 @@
+package CustomThreadPool;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * AgingTaskQueue
+ *
+ * Multi-level task queue used by SimpleThreadPool: one FIFO per priority level, with aging so that
+ * low-priority work cannot starve behind a steady stream of urgent tasks.
+ *
+ * Semantics:
+ * - add: O(1), appends to the FIFO of the entry's priority.
+ * - poll: O(levels). Each level's head is its oldest entry, so it is the only candidate of that level.
+ *   A head's effective priority is priority + waited / agingNanos (one level per aging interval);
+ *   the head with the highest effective priority wins, ties go to the higher base priority.
+ *   → within a level order stays FIFO; across levels a task waits at most
+ *     (MAX_PRIORITY - its priority) * aging before it beats fresh top-priority work.
+ * - pollOldest: removes the entry that was enqueued first among those the caller may drop, whatever its
+ *   level (drop-oldest policy). O(size) in the worst case, but only runs on the rejection path.
+ *
+ * Not thread-safe: every call is made while holding the pool lock.
+ */
+final class AgingTaskQueue {
+
+    /**
+     * Queue entry: the task, its pool-assigned id, its priority level and the time it was accepted
+     * (for aging and metrics). Task wrappers the pool creates itself (submit, supplyAsync, keyed lanes)
+     * are their own entry, so only a bare Runnable from execute costs an extra Wrapper allocation.
+     */
+    interface Entry {
+        Runnable task();
+
+        long id();
+
+        int priority();
+
+        long enqueuedAt();
+
+        /**
+         * Called by the pool, under its lock, each time the entry is accepted.
+         */
+        void stamp(long id, long enqueuedAt);
+    }
+
+    /**
+     * Entry for a Runnable the pool did not create.
+     */
+    static final class Wrapper implements Entry {
+        private final Runnable task;
+        private final int priority;
+        private long id;
+        private long enqueuedAt;
+
+        Wrapper(Runnable task, int priority) {
+            this.task = task;
+            this.priority = priority;
+        }
+
+        @Override public Runnable task() { return task; }
+        @Override public long id() { return id; }
+        @Override public int priority() { return priority; }
+        @Override public long enqueuedAt() { return enqueuedAt; }
+
+        @Override
+        public void stamp(long id, long enqueuedAt) {
+            this.id = id;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    private final int minPriority;
+    private final ArrayDeque<Entry>[] levels;
+    private long agingNanos;
+    private int size;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AgingTaskQueue(int minPriority, int maxPriority, long agingNanos) {
+        this.minPriority = minPriority;
+        this.levels = (ArrayDeque<Entry>[]) new ArrayDeque[maxPriority - minPriority + 1];
+        for (int i = 0; i < levels.length; i++) {
+            levels[i] = new ArrayDeque<>();
+        }
+        setAgingNanos(agingNanos);
+    }
+
+    void setAgingNanos(long agingNanos) {
+        if (agingNanos <= 0) throw new IllegalArgumentException("aging interval must be > 0");
+        this.agingNanos = agingNanos;
+    }
+
+    long getAgingNanos() {
+        return agingNanos;
+    }
+
+    void add(Entry e) {
+        levels[e.priority() - minPriority].addLast(e);
+        size++;
+    }
+
+    Entry poll(long now) {
+        int best = -1;
+        long bestScore = Long.MIN_VALUE;
+        for (int level = levels.length - 1; level >= 0; level--) {
+            Entry head = levels[level].peekFirst();
+            if (head == null) continue;
+            long score = level + (now - head.enqueuedAt()) / agingNanos;
+            if (score > bestScore) {
+                bestScore = score;
+                best = level;
+            }
+        }
+        return best < 0 ? null : remove(best);
+    }
+
+    Entry pollOldest(Predicate<Runnable> evictable) {
+        Entry oldest = null;
+        int oldestLevel = -1;
+        for (int level = 0; level < levels.length; level++) {
+            // each level is FIFO, so its first evictable entry is its oldest one
+            for (Entry e : levels[level]) {
+                if (evictable.test(e.task())) {
+                    if (oldest == null || e.enqueuedAt() - oldest.enqueuedAt() < 0) {
+                        oldest = e;
+                        oldestLevel = level;
+                    }
+                    break;
+                }
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        for (Iterator<Entry> it = levels[oldestLevel].iterator(); it.hasNext(); ) {
+            if (it.next() == oldest) {
+                it.remove();
+                break;
+            }
+        }
+        size--;
+        return oldest;
+    }
+
+    /**
+     * Moves every queued task into sink, highest priority first, and empties the queue.
+     */
+    void drainTasksTo(List<Runnable> sink) {
+        for (int level = levels.length - 1; level >= 0; level--) {
+            for (Entry e : levels[level]) {
+                sink.add(e.task());
+            }
+            levels[level].clear();
+        }
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    private Entry remove(int level) {
+        size--;
+        return levels[level].pollFirst();
+    }
+}
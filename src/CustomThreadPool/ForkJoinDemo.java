@@ -0,0 +1,74 @@
+package CustomThreadPool;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recursive (fork/join-style) range sum: each task splits itself in two and submits both halves
+ * to the same pool until the range is small. Compares SimpleThreadPool against WorkStealingThreadPool.
+ *
+ * Usage: ForkJoinDemo [threads] [n]
+ */
+public class ForkJoinDemo {
+    private static final int THRESHOLD = 64;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long n = args.length > 1 ? Long.parseLong(args[1]) : 20_000_000L;
+
+        for (int round = 0; round < 3; round++) {
+            run("simple", new SimpleThreadPool(threads, 1 << 20), n);
+            run("work-stealing", new WorkStealingThreadPool(threads, 1 << 10), n);
+        }
+    }
+
+    private static void run(String label, ThreadPool pool, long n) throws InterruptedException {
+        LongAdder sum = new LongAdder();
+        AtomicInteger pending = new AtomicInteger(1);   // outstanding leaf/split tasks
+        CountDownLatch done = new CountDownLatch(1);
+
+        long start = System.nanoTime();
+        pool.execute(new RangeSum(pool, 1, n, sum, pending, done));
+        done.await();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        long expected = n * (n + 1) / 2;
+        System.out.printf("%-14s sum ok=%-5b %6d ms%n", label, sum.sum() == expected, elapsedMs);
+    }
+
+    private static final class RangeSum implements Runnable {
+        private final ThreadPool pool;
+        private final long from, to;
+        private final LongAdder sum;
+        private final AtomicInteger pending;
+        private final CountDownLatch done;
+
+        RangeSum(ThreadPool pool, long from, long to, LongAdder sum, AtomicInteger pending, CountDownLatch done) {
+            this.pool = pool;
+            this.from = from;
+            this.to = to;
+            this.sum = sum;
+            this.pending = pending;
+            this.done = done;
+        }
+
+        @Override
+        public void run() {
+            if (to - from < THRESHOLD) {
+                long s = 0;
+                for (long i = from; i <= to; i++) s += i;
+                sum.add(s);
+            } else {
+                long mid = (from + to) >>> 1;
+                pending.addAndGet(2);
+                pool.execute(new RangeSum(pool, from, mid, sum, pending, done));
+                pool.execute(new RangeSum(pool, mid + 1, to, sum, pending, done));
+            }
+            if (pending.decrementAndGet() == 0) done.countDown();
+        }
+    }
+}
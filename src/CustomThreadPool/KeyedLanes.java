@@ -0,0 +1,175 @@
+package CustomThreadPool;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.BiFunction;
+
+/**
+ * KeyedLanes
+ *
+ * Per-key serial execution on top of SimpleThreadPool (SimpleThreadPool.execute(key, task)).
+ * Tasks with the same key run one at a time in submission order; different keys run in parallel on
+ * the shared workers. A lane is just a small FIFO plus a Runnable that the pool runs; no thread per key.
+ *
+ * Lifecycle (all lane state changes go through ConcurrentHashMap.compute on the lane's key, so the
+ * bin lock of that key serializes them):
+ * - add to a missing key: create the lane with the task and schedule it on the pool
+ * - add to an existing key: append; the lane is already scheduled or running
+ * - the running lane takes its next task; if there is none, the lane is removed in the same
+ *   compute → an add either lands before the removal (and is run) or creates a fresh lane
+ *
+ * Fairness: a lane runs at most LANE_BATCH tasks per turn, then re-queues itself behind other work.
+ * If the pool has no room for it (or is shutting down) it keeps draining on the current worker instead
+ * of blocking that worker.
+ *
+ * Backpressure: a new lane is queued through pool.execute, so a full queue is handled by the pool's
+ * RejectionPolicy like any other task. If the lane is dropped or refused (the policy hands it to
+ * pool.discard, or execute throws) it is abandoned: removed from the map in a compute on its key, so no
+ * later add can reach it, and every task queued in it meanwhile, possibly by other threads, is
+ * discarded (counted as rejected, Futures cancelled). Nothing is silently lost.
+ * pollOldest (drop-oldest) never evicts a queued lane, including one re-queued by handOff, since by
+ * then tasks of its key may already have run.
+ */
+final class KeyedLanes {
+    private static final int LANE_BATCH = 64;
+
+    // Non-capturing, so taking the next task does not allocate.
+    private static final BiFunction<Object, Lane, Lane> TAKE_NEXT = (key, lane) -> {
+        lane.current = lane.tasks.poll();
+        return lane.current == null ? null : lane;     // null → evict the empty lane
+    };
+
+    private final SimpleThreadPool pool;
+    private final ConcurrentHashMap<Object, Lane> lanes = new ConcurrentHashMap<>();
+
+    KeyedLanes(SimpleThreadPool pool) {
+        this.pool = pool;
+    }
+
+    void execute(Object key, Runnable task) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(task);
+        Lane[] created = new Lane[1];
+        Lane lane = lanes.compute(key, (k, existing) -> {
+            if (existing == null) {
+                existing = new Lane(k);
+                created[0] = existing;
+            }
+            existing.tasks.add(task);
+            return existing;
+        });
+        if (created[0] != null) {
+            try {
+                pool.execute(lane);     // a policy that drops the lane goes through pool.discard → abandon
+            } catch (RejectedExecutionException ree) {
+                lane.abandon();         // no-op if discard already did it
+                throw ree;
+            }
+        }
+    }
+
+    /**
+     * False for lanes: a queued lane may hold the only reference to its key's pending tasks, so
+     * rejection policies must never drop it.
+     */
+    static boolean isEvictable(Runnable task) {
+        return !(task instanceof Lane);
+    }
+
+    /**
+     * Number of keys with queued or running work.
+     */
+    int size() {
+        return lanes.size();
+    }
+
+    final class Lane implements Runnable, AgingTaskQueue.Entry {
+        private final Object key;
+        private final ArrayDeque<Runnable> tasks = new ArrayDeque<>();    // guarded by the key's bin lock
+        private Runnable current;                                        // written by TAKE_NEXT, read by the runner
+        private long id;                    // queue entry stamps, restamped on every re-queue (pool lock)
+        private long enqueuedAt;
+
+        Lane(Object key) {
+            this.key = key;
+        }
+
+        @Override public Runnable task() { return this; }
+        @Override public long id() { return id; }
+        @Override public int priority() { return SimpleThreadPool.NORM_PRIORITY; }
+        @Override public long enqueuedAt() { return enqueuedAt; }
+
+        @Override
+        public void stamp(long id, long enqueuedAt) {
+            this.id = id;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        public void run() {
+            boolean drained;
+            do {
+                try {
+                    drained = runBatch();
+                } catch (Error e) {
+                    handOff();      // best effort: keep the remaining tasks of this key alive
+                    throw e;
+                }
+            } while (!drained && !handOff());
+        }
+
+        /**
+         * Called when the pool refused this (never started) lane: closes it to further adds and discards
+         * every task queued in it. Idempotent.
+         */
+        void abandon() {
+            ArrayDeque<Runnable> stranded = new ArrayDeque<>();
+            lanes.computeIfPresent(key, (k, l) -> {
+                if (l != this) {
+                    return l;   // already abandoned, key taken over by a fresh lane
+                }
+                stranded.addAll(tasks);
+                tasks.clear();
+                return null;
+            });
+            for (Runnable task : stranded) {
+                pool.discard(task);
+            }
+        }
+
+        /**
+         * Returns true once the lane is empty (and evicted).
+         */
+        private boolean runBatch() {
+            for (int i = 0; i < LANE_BATCH; i++) {
+                lanes.computeIfPresent(key, TAKE_NEXT);
+                Runnable task = current;
+                current = null;
+                if (task == null) {
+                    return true;
+                }
+                try {
+                    task.run();
+                } catch (RuntimeException re) {
+                    // one failing task must not stall the rest of its key
+                    System.err.println("Task for key " + key + " threw exception: " + re.getMessage());
+                    re.printStackTrace();
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Re-queues this lane behind other work. False if the pool cannot take it right now.
+         */
+        private boolean handOff() {
+            try {
+                return pool.tryExecute(this);
+            } catch (RejectedExecutionException shutdown) {
+                return false;   // shutdown: queued work still runs, finish this lane here
+            }
+        }
+    }
+}
@@ -0,0 +1,312 @@
+package CustomThreadPool;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LockFreeThreadPool
+ *
+ * Fixed-size pool whose submission and dequeue paths take no lock and signal no Condition.
+ * Meant for very small tasks, where SimpleThreadPool's lock + notEmpty.signal() per task cost more
+ * than the task itself.
+ *
+ * Design:
+ * - Tasks go into a ConcurrentLinkedQueue (lock-free MPMC); an AtomicInteger reserves one of
+ *   queueCapacity slots before the add, so the queue stays bounded.
+ * - Idle workers push themselves on a Treiber stack (tagged index head, ABA-safe, no allocation)
+ *   and park. A submitter unparks a worker only if one is parked AND no worker is currently spinning
+ *   for work: during bursts most submissions are a plain CAS + add with no wakeup at all.
+ * - A woken worker drains the queue until it is empty (many tasks per wakeup), then spins briefly
+ *   before parking again. The last spinner to find a task wakes a parked worker if more work is left,
+ *   so tasks whose wakeup was skipped on its account are not stranded behind a long-running task.
+ *
+ * No lost wakeups: a worker registers (spinning-- / push on the idle stack) before its last look at
+ * the queue, a submitter adds the task before it looks at the spinning count / idle stack. With
+ * volatile/CAS on both sides one of them always sees the other.
+ *
+ * No wasted wakeups: a worker is on the idle stack only while it is about to park. If its last look
+ * finds work (or it wakes for any reason) it withdraws its waiting flag, leaving a stale entry behind;
+ * wakeOne claims a popped worker by CASing that flag and pops again on a stale entry, so the unpark
+ * always reaches a worker that is really parked. The stale entry is not pushed twice: a worker
+ * re-pushes only after a popper has physically removed it.
+ *
+ * Semantics (as SimpleThreadPool, minus the elastic sizing and priorities):
+ * - execute: blocks while the queue is full (spin → yield → timed park; there is no notFull Condition
+ *   to wait on). Throws RejectedExecutionException if shutdown.
+ * - tryExecute: never blocks; false if the queue is full.
+ * - shutdown / shutdownNow / awaitTermination: as in ThreadPool.
+ */
+public class LockFreeThreadPool implements ThreadPool {
+    private static final int NIL = -1;
+    private static final int SPIN_TRIES = 256;
+    private static final long MAX_SUBMIT_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final Worker[] workers;
+    private final int queueCapacity;
+    private final Queue<Runnable> taskQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();    // reserved + queued tasks
+    private final AtomicInteger spinning = new AtomicInteger();  // workers looking for work without parking
+
+    // Idle-worker Treiber stack: [ version (32 bits) | worker index (32 bits) ], links in idleNext.
+    private final AtomicLong idleHead = new AtomicLong(pack(0, NIL));
+    private final int[] idleNext;
+
+    private final CountDownLatch terminated;
+    private volatile boolean isShutdown = false;
+    private volatile boolean isStopped = false;
+
+    public LockFreeThreadPool(int poolSize, int queueCapacity) {
+        if (poolSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("poolSize and queueCapacity must be > 0");
+        }
+        this.queueCapacity = queueCapacity;
+        this.workers = new Worker[poolSize];
+        this.idleNext = new int[poolSize];
+        this.terminated = new CountDownLatch(poolSize);
+        for (int i = 0; i < poolSize; i++) {
+            workers[i] = new Worker(i);
+        }
+        for (Worker w : workers) {
+            w.thread.start();
+        }
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task);
+        for (int attempt = 0; !tryExecute(task); attempt++) {
+            backOff(attempt);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted while waiting to enqueue");
+            }
+        }
+    }
+
+    /**
+     * Non-blocking execute: returns false if the queue is full.
+     * Throws RejectedExecutionException if pool is shutdown.
+     */
+    public boolean tryExecute(Runnable task) {
+        Objects.requireNonNull(task);
+        if (isShutdown) {
+            throw new RejectedExecutionException("ThreadPool is shutdown");
+        }
+        int n;
+        do {
+            n = queued.get();
+            if (n >= queueCapacity) return false;
+        } while (!queued.compareAndSet(n, n + 1));
+        // the reservation is visible before this read, so workers keep going until we have added
+        if (isShutdown) {
+            queued.decrementAndGet();
+            throw new RejectedExecutionException("ThreadPool is shutdown");
+        }
+        taskQueue.add(task);
+        if (spinning.get() == 0) {
+            wakeOne();
+        }
+        return true;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> callable) {
+        Objects.requireNonNull(callable);
+        FutureTask<T> ft = new FutureTask<>(callable);
+        execute(ft);
+        return ft;
+    }
+
+    private static void backOff(int attempt) {
+        if (attempt < 64) {
+            Thread.onSpinWait();
+        } else if (attempt < 128) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(Math.min(MAX_SUBMIT_PARK_NANOS, 1_000L << Math.min(attempt - 128, 10)));
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        wakeAll();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        isStopped = true;
+        List<Runnable> pending = new ArrayList<>();
+        Runnable r;
+        while ((r = taskQueue.poll()) != null) {
+            queued.decrementAndGet();
+            pending.add(r);
+        }
+        for (Worker w : workers) {
+            w.thread.interrupt();
+        }
+        wakeAll();
+        return pending;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    public int getPoolSize() {
+        return workers.length;
+    }
+
+    /**
+     * Approximate number of queued tasks.
+     */
+    public int getQueueSize() {
+        return queued.get();
+    }
+
+    // ---------------- IDLE-WORKER STACK ----------------
+
+    private void wakeOne() {
+        int i;
+        while ((i = popIdle()) != NIL) {
+            Worker w = workers[i];
+            w.onStack = false;   // before the claim: a worker that still sees true is claimed below
+            if (w.waiting.compareAndSet(true, false)) {
+                LockSupport.unpark(w.thread);
+                return;
+            }
+            // stale: that worker found work after registering, try the next one
+        }
+    }
+
+    private void wakeAll() {
+        for (Worker w : workers) {
+            LockSupport.unpark(w.thread);
+        }
+    }
+
+    private void pushIdle(int index) {
+        while (true) {
+            long h = idleHead.get();
+            idleNext[index] = index(h);
+            if (idleHead.compareAndSet(h, pack(version(h) + 1, index))) return;
+        }
+    }
+
+    private int popIdle() {
+        while (true) {
+            long h = idleHead.get();
+            int top = index(h);
+            if (top == NIL) return NIL;
+            // idleNext[top] may be stale if top was popped and re-pushed meanwhile; the version makes that CAS fail
+            if (idleHead.compareAndSet(h, pack(version(h) + 1, idleNext[top]))) return top;
+        }
+    }
+
+    private static long pack(int version, int index) {
+        return ((long) version << 32) | (index & 0xFFFFFFFFL);
+    }
+
+    private static int version(long tagged) {
+        return (int) (tagged >>> 32);
+    }
+
+    private static int index(long tagged) {
+        return (int) tagged;
+    }
+
+    // ---------------- WORKERS ----------------
+
+    private final class Worker implements Runnable {
+        private final int index;
+        private final Thread thread;
+        // true while the index is on the idle stack; cleared only by the thread that pops it
+        private volatile boolean onStack;
+        // true while about to park; cleared by the worker when it finds work, or by wakeOne to claim it
+        private final AtomicBoolean waiting = new AtomicBoolean();
+
+        Worker(int index) {
+            this.index = index;
+            this.thread = new Thread(this, "LockFreeThreadPool-Worker-" + index);
+        }
+
+        @Override
+        public void run() {
+            try {
+                Runnable task;
+                while ((task = nextTask()) != null) {
+                    try {
+                        task.run();
+                    } catch (RuntimeException re) {
+                        // swallow to prevent worker death; log if needed
+                        System.err.println("Task threw exception: " + re.getMessage());
+                        re.printStackTrace();
+                    }
+                }
+            } finally {
+                terminated.countDown();
+            }
+        }
+
+        /**
+         * Returns the next task, or null when the worker must exit.
+         */
+        private Runnable nextTask() {
+            while (true) {
+                if (isStopped) return null;
+                Runnable task = poll();
+                if (task != null) return task;
+                if (isShutdown && queued.get() == 0) return null;
+
+                // spin a little: a submitter that sees us spinning skips the unpark
+                spinning.incrementAndGet();
+                for (int i = 0; i < SPIN_TRIES && task == null && !isShutdown; i++) {
+                    Thread.onSpinWait();
+                    task = poll();
+                }
+                int stillSpinning = spinning.decrementAndGet();
+                if (task != null) {
+                    // submitters may have skipped their wakeup counting on us, but we take only one task
+                    if (stillSpinning == 0 && !taskQueue.isEmpty()) wakeOne();
+                    return task;
+                }
+                if (isShutdown) continue;   // draining: never park while tasks may still be reserved
+
+                waiting.set(true);
+                if (!onStack) {
+                    onStack = true;
+                    pushIdle(index);
+                }
+                // last look after registering, then park
+                if (taskQueue.isEmpty() && !isShutdown) {
+                    LockSupport.park(this);
+                }
+                waiting.set(false);     // leaves a stale entry if nobody claimed us; wakeOne skips it
+                Thread.interrupted();   // stale interrupt from a task; shutdownNow is seen via isStopped
+            }
+        }
+
+        private Runnable poll() {
+            Runnable task = taskQueue.poll();
+            if (task != null) {
+                queued.decrementAndGet();
+            }
+            return task;
+        }
+    }
+}
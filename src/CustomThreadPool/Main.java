@@ -23,11 +23,43 @@ public class Main {
         });
 
         System.out.println("Callable result: " + f.get()); // blocks until done
+        System.out.println("Metrics: " + pool.metrics());
 
-        // orderly shutdown
-        pool.shutdown();
-        boolean terminated = pool.awaitTermination(5, TimeUnit.SECONDS);
-        System.out.println("Terminated gracefully: " + terminated);
+        // non-blocking pipeline: supply on the pool, transform inline, hop back to the pool for the async stage
+        CompletableFuture<String> pipeline = pool.supplyAsync(() -> 21)
+                .thenApply(x -> x * 2)
+                .thenApplyAsync(x -> Thread.currentThread().getName() + " computed " + x);
+        System.out.println("Async result: " + pipeline.get());
+
+        // orderly shutdown: drain for up to 5 s, then interrupt for up to 1 s, reporting every 500 ms
+        ShutdownProgress last = pool.shutdownGracefully(5_000, 1_000, 500, TimeUnit.MILLISECONDS,
+                report -> System.out.println("Shutdown " + report));
+        System.out.println("Terminated gracefully: " + last.isTerminated());
+
+        // elastic sizing: 2 core workers, up to 6 under a burst, extras retire after 300 ms idle
+        SimpleThreadPool elastic = new SimpleThreadPool(2, 6, 300, TimeUnit.MILLISECONDS, 4);
+        System.out.println("Elastic pool size before burst: " + elastic.getPoolSize());
+        for (int i = 0; i < 10; i++) {
+            elastic.execute(() -> {
+                try { Thread.sleep(200); } catch (InterruptedException ignored) {}
+            });
+        }
+        System.out.println("Elastic pool size during burst: " + elastic.getPoolSize());
+        Thread.sleep(1000);
+        System.out.println("Elastic pool size after keep-alive: " + elastic.getPoolSize()
+                + " (largest " + elastic.getLargestPoolSize() + ")");
+        elastic.shutdown();
+        elastic.awaitTermination(5, TimeUnit.SECONDS);
+
+        // delayed + periodic tasks on the timing wheel
+        SimpleThreadPool scheduler = new SimpleThreadPool(2, 16);
+        ScheduledFuture<?> heartbeat = scheduler.scheduleAtFixedRate(
+                () -> System.out.println("heartbeat " + System.currentTimeMillis() % 100_000), 0, 100, TimeUnit.MILLISECONDS);
+        ScheduledFuture<String> timeout = scheduler.schedule(() -> "timeout fired", 350, TimeUnit.MILLISECONDS);
+        System.out.println(timeout.get());
+        heartbeat.cancel(false);
+        scheduler.shutdown();
+        scheduler.awaitTermination(5, TimeUnit.SECONDS);
 
         // Uncomment to test shutdownNow()
         // SimpleThreadPool pool2 = new SimpleThreadPool(2, 2);
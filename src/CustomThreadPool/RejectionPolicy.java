@@ -0,0 +1,89 @@
+package CustomThreadPool;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RejectionPolicy
+ *
+ * Decides what SimpleThreadPool.execute does when the queue is full and the pool is at maximumPoolSize.
+ * (A shut-down pool always throws RejectedExecutionException; policies are not consulted.)
+ *
+ * Built-in policies:
+ * - block()                     wait for space (default, the original behaviour)
+ * - blockWithTimeout(t, unit)   wait up to t, then throw RejectedExecutionException
+ * - callerRuns()                run the task on the submitting thread (natural throttling)
+ * - dropOldest()                evict the oldest queued task, enqueue this one (keyed lanes are never
+ *                               evicted; if nothing else is queued, this task is dropped)
+ * - dropNewest()                silently discard this task
+ * - abort()                     throw RejectedExecutionException immediately
+ *
+ * Every task a policy drops or refuses goes through pool.discard(): it is counted as rejected in the pool's
+ * metrics and, if it is a Future (from submit), cancelled so nobody waits on it forever. A task that is
+ * accepted after waiting (block) or run by the caller (callerRuns) is not a rejection.
+ * Custom policies can use the pool's public tryExecute / offer / pollOldest / discard.
+ */
+@FunctionalInterface
+public interface RejectionPolicy {
+
+    void rejected(Runnable task, SimpleThreadPool pool);
+
+    static RejectionPolicy block() {
+        return (task, pool) -> {
+            try {
+                pool.offer(task, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                pool.discard(task);
+                throw new RejectedExecutionException("Interrupted while waiting to enqueue", ie);
+            }
+        };
+    }
+
+    static RejectionPolicy blockWithTimeout(long timeout, TimeUnit unit) {
+        if (timeout < 0) throw new IllegalArgumentException("timeout must be >= 0");
+        return (task, pool) -> {
+            try {
+                if (!pool.offer(task, timeout, unit)) {
+                    pool.discard(task);
+                    throw new RejectedExecutionException("Queue still full after " + timeout + " " + unit);
+                }
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                pool.discard(task);
+                throw new RejectedExecutionException("Interrupted while waiting to enqueue", ie);
+            }
+        };
+    }
+
+    static RejectionPolicy callerRuns() {
+        return (task, pool) -> task.run();
+    }
+
+    static RejectionPolicy dropOldest() {
+        return (task, pool) -> {
+            while (!pool.tryExecute(task)) {
+                Runnable oldest = pool.pollOldest();
+                if (oldest == null) {
+                    // nothing droppable queued (only keyed lanes): drop this task instead
+                    if (!pool.tryExecute(task)) {
+                        pool.discard(task);
+                    }
+                    return;
+                }
+                pool.discard(oldest);
+            }
+        };
+    }
+
+    static RejectionPolicy dropNewest() {
+        return (task, pool) -> pool.discard(task);
+    }
+
+    static RejectionPolicy abort() {
+        return (task, pool) -> {
+            pool.discard(task);
+            throw new RejectedExecutionException("Queue full, task rejected");
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package CustomThreadPool;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShutdownProgress
+ *
+ * One progress report of SimpleThreadPool.shutdownGracefully: which phase the shutdown is in, how long it
+ * has been running, and what is still left (queued tasks, tasks running right now, live workers).
+ * Task ids are the ones the pool assigns when it accepts a task (monotonic per pool).
+ */
+public final class ShutdownProgress {
+
+    public enum Phase {
+        /** shutdown() called: no new tasks are accepted, timers are cancelled. */
+        INTAKE_STOPPED,
+        /** Queued and running tasks are finishing normally, up to the drain deadline. */
+        DRAINING,
+        /** Drain deadline missed: queue dropped (see getDroppedTasks), running tasks interrupted. */
+        INTERRUPTING,
+        /** Tasks ignored the interrupt: their Futures were cancelled and the pool gave up waiting. */
+        FORCED,
+        /** Every worker has exited. */
+        TERMINATED
+    }
+
+    private final Phase phase;
+    private final long elapsedNanos;
+    private final int queuedTasks;
+    private final List<Long> inFlightTaskIds;
+    private final int liveWorkers;
+    private final List<Runnable> droppedTasks;
+
+    ShutdownProgress(Phase phase, long elapsedNanos, int queuedTasks, List<Long> inFlightTaskIds, int liveWorkers,
+                     List<Runnable> droppedTasks) {
+        this.phase = phase;
+        this.elapsedNanos = elapsedNanos;
+        this.queuedTasks = queuedTasks;
+        this.inFlightTaskIds = List.copyOf(inFlightTaskIds);
+        this.liveWorkers = liveWorkers;
+        this.droppedTasks = List.copyOf(droppedTasks);
+    }
+
+    public Phase getPhase() { return phase; }
+    public long getElapsedNanos() { return elapsedNanos; }
+    public int getQueuedTasks() { return queuedTasks; }
+    public List<Long> getInFlightTaskIds() { return inFlightTaskIds; }
+    public int getLiveWorkers() { return liveWorkers; }
+
+    /**
+     * Tasks removed from the queue without running (non-empty from INTERRUPTING on).
+     */
+    public List<Runnable> getDroppedTasks() { return droppedTasks; }
+
+    /**
+     * True if the pool reached TERMINATED, i.e. nothing was left behind.
+     */
+    public boolean isTerminated() {
+        return phase == Phase.TERMINATED;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-14s +%5d ms  queued=%d in-flight=%s workers=%d dropped=%d",
+                phase, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), queuedTasks, inFlightTaskIds, liveWorkers,
+                droppedTasks.size());
+    }
+}
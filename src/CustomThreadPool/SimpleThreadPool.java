@@ -3,100 +3,487 @@ package CustomThreadPool;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.locks.*;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
 
 /**
  * SimpleThreadPool
  *
- * Fixed-size thread pool with bounded task queue implemented from scratch
+ * Elastic thread pool with bounded task queue implemented from scratch
  * (ReentrantLock + Condition). Provides execute(Runnable) and submit(Callable).
  *
+ * Sizing:
+ * - No thread is started in the constructor; workers are created on demand.
+ * - Below corePoolSize: every execute starts a new worker that runs the task directly.
+ * - At/above core: the task is queued. If no worker is idle to pick it up (the queue is backing up)
+ *   and the pool is below maximumPoolSize, one extra worker is started.
+ * - Workers above corePoolSize exit after keepAlive of idleness; core workers live until shutdown.
+ *
  * Semantics:
- * - execute: blocks if queue is full (backpressure). Throws RejectedExecutionException if shutdown.
+ * - execute: if queue is full and the pool is at max size, the RejectionPolicy decides
+ *   (default: block = backpressure). Throws RejectedExecutionException if shutdown.
+ * - tryExecute: never blocks; false if the task could not be queued.
+ * - offer: waits up to a timeout for queue space; false on timeout.
  * - submit: wraps Callable into a FutureTask and executes it.
+ * - supplyAsync / runAsync: like submit but return a CompletableFuture bound to this pool:
+ *   every *Async stage derived from it (thenApplyAsync, thenComposeAsync, ...) runs here too,
+ *   while plain stages (thenApply, thenAccept, ...) run inline on the worker that completed the
+ *   previous stage, with no extra queue hop. An *Async stage triggered on one of this pool's own
+ *   workers never waits for queue space: if the queue is full it runs inline on that worker
+ *   (caller-runs), whatever the RejectionPolicy. Blocking there instead would deadlock the pool
+ *   under block() once every worker did it.
+ * - execute(key, task): tasks with an equal key run one at a time, in submission order; different
+ *   keys run in parallel (see KeyedLanes). Lanes are created on demand and evicted once empty.
  * - shutdown: stop accepting new tasks; workers finish queued tasks then exit.
  * - shutdownNow: stop accepting new tasks, clear queue, interrupt workers and return pending tasks.
  * - awaitTermination: waits for worker threads to terminate.
+ * - shutdownGracefully: phased shutdown with a bounded total time: stop intake → drain until a deadline
+ *   → drop the queue and interrupt → cancel the Futures of tasks that still run. Reports a
+ *   ShutdownProgress (queued count, in-flight task ids, elapsed time) at every phase change and
+ *   periodically in between.
+ *
+ * Priorities and deadlines:
+ * - submit(callable, priority) / submit(callable, deadline) / submit(callable, priority, deadline).
+ *   Priority runs from MIN_PRIORITY to MAX_PRIORITY; plain execute/submit use NORM_PRIORITY.
+ * - The queue is an AgingTaskQueue: FIFO per level, highest level first, but a waiting task gains one
+ *   level per aging interval (setPriorityAging, default 100 ms) so low priorities are never starved.
+ * - A task whose deadline has passed is dropped right before it would run: its Future completes
+ *   exceptionally with a TimeoutException and the task never takes worker time.
+ *   Priority and deadline travel with the task, so rejection policies that re-offer it keep them.
+ *
+ * Scheduling:
+ * - schedule / scheduleAtFixedRate / scheduleWithFixedDelay return ScheduledFutures driven by a
+ *   TimingWheel (1 ms ticks, O(1) schedule and cancel), started lazily on the first schedule call.
+ * - When a timer fires its task is handed to this pool's queue (tryExecute); if the queue is full the
+ *   timer retries on the next tick rather than blocking the wheel.
+ * - Periodic runs never overlap; an exception thrown by a periodic task cancels further runs and is
+ *   reported by the Future. shutdown()/shutdownNow() cancel every timer that has not fired yet.
+ *
+ * Metrics:
+ * - metrics() returns a ThreadPoolMetrics.Snapshot: sizes, queue depth, task counters and
+ *   queue-wait / run-time latency histograms (recorded by the worker around task.run()).
+ * - registerMBean(name) publishes the same data as a ThreadPoolMXBean on the platform MBean server.
  */
-public class SimpleThreadPool {
+public class SimpleThreadPool implements ThreadPool {
 
-    private final int poolSize;
+    private final int corePoolSize;
+    private final int maximumPoolSize;
+    private final long keepAliveNanos;
     private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
 
     private final Lock lock = new ReentrantLock();
     private final Condition notEmpty = lock.newCondition();
     private final Condition notFull = lock.newCondition();
+    private final Condition termination = lock.newCondition();
+
+    public static final int MIN_PRIORITY = 1;
+    public static final int NORM_PRIORITY = 5;
+    public static final int MAX_PRIORITY = 10;
+    private static final long DEFAULT_AGING_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
 
-    private final Queue<Runnable> taskQueue = new LinkedList<>();
-    private final List<Worker> workers = new ArrayList<>();
+    private final AgingTaskQueue taskQueue = new AgingTaskQueue(MIN_PRIORITY, MAX_PRIORITY, DEFAULT_AGING_NANOS);
+    private final Set<Worker> workers = new HashSet<>();   // guarded by lock
+    private int idleWorkers = 0;                           // workers waiting in getTask, guarded by lock
+    private int largestPoolSize = 0;                       // guarded by lock
+    private int workerSeq = 0;                             // guarded by lock
+    private long taskSeq = 0;                              // ids for accepted tasks, guarded by lock
     private volatile boolean isShutdown = false;    // set by shutdown()
     private volatile boolean isStopped = false;     // set by shutdownNow()
+    private final ThreadPoolMetrics metrics = new ThreadPoolMetrics();
+    private volatile TimingWheel timingWheel;       // created on first schedule, guarded by lock
+    private volatile KeyedLanes lanes;              // created on first keyed execute, guarded by lock
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
 
+    /**
+     * Fixed-size pool: poolSize core workers, no extra workers.
+     */
     public SimpleThreadPool(int poolSize, int queueCapacity) {
-        if (poolSize <= 0 || queueCapacity <= 0) {
-            throw new IllegalArgumentException("poolSize and queueCapacity must be > 0");
+        this(poolSize, poolSize, 0, TimeUnit.NANOSECONDS, queueCapacity);
+    }
+
+    public SimpleThreadPool(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, int queueCapacity) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, queueCapacity, RejectionPolicy.block());
+    }
+
+    public SimpleThreadPool(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit, int queueCapacity,
+                            RejectionPolicy rejectionPolicy) {
+        if (corePoolSize < 0 || maximumPoolSize <= 0 || maximumPoolSize < corePoolSize || queueCapacity <= 0) {
+            throw new IllegalArgumentException("need 0 <= corePoolSize <= maximumPoolSize, maximumPoolSize > 0, queueCapacity > 0");
         }
-        this.poolSize = poolSize;
+        if (keepAliveTime < 0) {
+            throw new IllegalArgumentException("keepAliveTime must be >= 0");
+        }
+        this.corePoolSize = corePoolSize;
+        this.maximumPoolSize = maximumPoolSize;
+        this.keepAliveNanos = unit.toNanos(keepAliveTime);
         this.queueCapacity = queueCapacity;
-        startWorkers();
+        this.rejectionPolicy = Objects.requireNonNull(rejectionPolicy);
     }
 
-    private void startWorkers() {
-        for (int i = 0; i < poolSize; i++) {
-            Worker w = new Worker("SimpleThreadPool-Worker-" + i);
-            workers.add(w);
-            w.thread.start();
+    /**
+     * Starts all core workers now instead of on first use.
+     * Returns the number of workers started.
+     */
+    public int prestartAllCoreThreads() {
+        lock.lock();
+        try {
+            int started = 0;
+            while (workers.size() < corePoolSize && !isShutdown) {
+                addWorker(null);
+                started++;
+            }
+            return started;
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
-     * Execute a Runnable. Blocks when queue is full.
+     * Must hold lock. Starts a worker that runs firstTask (if any) before polling the queue.
+     */
+    private void addWorker(AgingTaskQueue.Entry firstTask) {
+        Worker w = new Worker("SimpleThreadPool-Worker-" + workerSeq++, firstTask);
+        workers.add(w);
+        largestPoolSize = Math.max(largestPoolSize, workers.size());
+        w.thread.start();
+    }
+
+    /**
+     * Execute a Runnable. If the queue is full and no more workers may be added,
+     * the pool's RejectionPolicy handles the task.
      * Throws RejectedExecutionException if pool is shutdown.
      */
+    @Override
     public void execute(Runnable task) {
+        if (!tryExecute(task)) {
+            rejectionPolicy.rejected(task, this);   // counts as rejected only if the policy drops or refuses it
+        }
+    }
+
+    /**
+     * Records task as rejected and cancels it if it is a Future (from submit), so nobody waits on it forever.
+     * RejectionPolicies call this for every task they drop or refuse; null is ignored.
+     * A keyed lane is not counted itself: every task queued in it is discarded instead.
+     */
+    public void discard(Runnable task) {
+        if (task == null) {
+            return;
+        }
+        if (task instanceof KeyedLanes.Lane lane) {
+            lane.abandon();
+            return;
+        }
+        metrics.rejected.increment();
+        if (task instanceof Future<?> f) {
+            f.cancel(false);
+        }
+    }
+
+    /**
+     * Runs task after every earlier task submitted with an equal key has finished
+     * (key equality is equals/hashCode, as in a HashMap).
+     * Throws RejectedExecutionException if pool is shutdown.
+     */
+    public void execute(Object key, Runnable task) {
+        if (isShutdown) {
+            metrics.rejected.increment();
+            throw new RejectedExecutionException("ThreadPool is shutdown");
+        }
+        lanes().execute(key, task);
+    }
+
+    private KeyedLanes lanes() {
+        KeyedLanes l = lanes;
+        if (l == null) {
+            lock.lock();
+            try {
+                if ((l = lanes) == null) {
+                    lanes = l = new KeyedLanes(this);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return l;
+    }
+
+    /**
+     * Number of keys that currently have queued or running keyed tasks.
+     */
+    public int getLaneCount() {
+        KeyedLanes l = lanes;
+        return l == null ? 0 : l.size();
+    }
+
+    /**
+     * Non-blocking execute: returns false if the queue is full and the pool is at max size.
+     * Throws RejectedExecutionException if pool is shutdown.
+     */
+    public boolean tryExecute(Runnable task) {
+        try {
+            return enqueue(task, 0L);
+        } catch (InterruptedException ie) {
+            throw new AssertionError(ie);   // zero timeout never waits
+        }
+    }
+
+    /**
+     * Waits up to timeout for queue space. Returns false if the timeout elapsed.
+     * Throws RejectedExecutionException if pool is (or becomes) shutdown while waiting.
+     */
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        return enqueue(task, unit.toNanos(timeout));
+    }
+
+    /**
+     * Removes and returns the oldest queued task that may be dropped, or null if there is none.
+     * Keyed lanes (execute(key, task)) are never returned: dropping one would strand every later task of
+     * its key. Meant for rejection policies (e.g. drop-oldest).
+     */
+    public Runnable pollOldest() {
+        lock.lock();
+        try {
+            AgingTaskQueue.Entry oldest = taskQueue.pollOldest(KeyedLanes::isEvictable);
+            if (oldest == null) {
+                return null;
+            }
+            notFull.signal();
+            return oldest.task();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean enqueue(Runnable task, long nanos) throws InterruptedException {
         Objects.requireNonNull(task);
         lock.lock();
         try {
             if (isShutdown || isStopped) {
+                discard(task);
                 throw new RejectedExecutionException("ThreadPool is shutdown");
             }
+            if (workers.size() < corePoolSize) {
+                addWorker(accept(task));    // hand the task straight to a new core worker
+                return true;
+            }
             while (taskQueue.size() == queueCapacity) {
+                if (workers.size() < maximumPoolSize) {
+                    addWorker(accept(task));    // queue full: absorb the burst with a non-core worker
+                    return true;
+                }
+                if (nanos <= 0L) {
+                    return false;
+                }
                 // Wait until space available
-                try {
-                    notFull.await();
-                } catch (InterruptedException ie) {
-                    // Restore status and re-check shutdown
-                    Thread.currentThread().interrupt();
-                    throw new RejectedExecutionException("Interrupted while waiting to enqueue", ie);
+                nanos = notFull.awaitNanos(nanos);
+                if (isShutdown) {
+                    discard(task);
+                    throw new RejectedExecutionException("ThreadPool is shutdown");
                 }
             }
-            taskQueue.add(task);
-            notEmpty.signal(); // notify a worker
+            taskQueue.add(accept(task));
+            if (idleWorkers > 0) {
+                notEmpty.signal(); // notify a worker
+            } else if (workers.size() < maximumPoolSize) {
+                addWorker(null);   // nobody idle to take it: queue is backing up, grow
+            }
+            return true;
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Must hold lock. Wrappers the pool created (submit, supplyAsync, keyed lanes) are their own queue
+     * entry and are only stamped; a bare Runnable gets a Wrapper.
+     */
+    private AgingTaskQueue.Entry accept(Runnable task) {
+        metrics.submitted.increment();
+        AgingTaskQueue.Entry entry = task instanceof AgingTaskQueue.Entry self
+                ? self : new AgingTaskQueue.Wrapper(task, NORM_PRIORITY);
+        entry.stamp(taskSeq++, System.nanoTime());
+        return entry;
+    }
+
     /**
      * Submit a Callable and return a Future.
-     * Blocks when queue is full.
+     * Goes through execute, so a full queue is handled by the RejectionPolicy.
      */
+    @Override
     public <T> Future<T> submit(Callable<T> callable) {
         Objects.requireNonNull(callable);
-        FutureTask<T> ft = new FutureTask<>(callable);
-        execute(ft); // will block or throw if shutdown
+        PriorityFutureTask<T> ft = new PriorityFutureTask<>(callable, NORM_PRIORITY, null);   // its own queue entry
+        execute(ft); // may block (policy) or throw if shutdown
         return ft;
     }
 
+    /**
+     * Runs supplier on this pool. Dependent *Async stages default to this pool as well.
+     * Goes through execute, so a full queue is handled by the RejectionPolicy; if a policy drops
+     * the task the returned future is cancelled.
+     */
+    public <T> CompletableFuture<T> supplyAsync(Supplier<T> supplier) {
+        Objects.requireNonNull(supplier);
+        PoolCompletableFuture<T> future = new PoolCompletableFuture<>(this);
+        execute(new AsyncTask<>(future, supplier));
+        return future;
+    }
+
+    /**
+     * Runs task on this pool; see supplyAsync.
+     */
+    public CompletableFuture<Void> runAsync(Runnable task) {
+        Objects.requireNonNull(task);
+        return supplyAsync(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Submit with a priority between MIN_PRIORITY and MAX_PRIORITY (higher runs first).
+     */
+    public <T> Future<T> submit(Callable<T> callable, int priority) {
+        return submit(callable, priority, null);
+    }
+
+    /**
+     * Submit with a deadline: if no worker has started the task by then, it is dropped and the
+     * Future fails with a TimeoutException (wrapped in ExecutionException by get()).
+     */
+    public <T> Future<T> submit(Callable<T> callable, Instant deadline) {
+        return submit(callable, NORM_PRIORITY, Objects.requireNonNull(deadline));
+    }
+
+    /**
+     * Submit with a priority and an optional (nullable) deadline.
+     */
+    public <T> Future<T> submit(Callable<T> callable, int priority, Instant deadline) {
+        Objects.requireNonNull(callable);
+        if (priority < MIN_PRIORITY || priority > MAX_PRIORITY) {
+            throw new IllegalArgumentException("priority must be in [" + MIN_PRIORITY + ", " + MAX_PRIORITY + "]");
+        }
+        PriorityFutureTask<T> ft = new PriorityFutureTask<>(callable, priority, deadline);
+        if (ft.isExpired(System.nanoTime())) {
+            expire(ft);     // already late: don't spend a queue slot on it
+            return ft;
+        }
+        execute(ft);
+        return ft;
+    }
+
+    /**
+     * Runs task once after delay.
+     */
+    public ScheduledFuture<?> schedule(Runnable task, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task);
+        return schedule(Executors.callable(task), delay, unit);
+    }
+
+    /**
+     * Runs callable once after delay.
+     */
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        Objects.requireNonNull(callable);
+        return arm(callable, deadlineAfter(delay, unit), 0L);
+    }
+
+    /**
+     * First run after initialDelay, then at initialDelay + n * period. A run that overruns delays the
+     * next one; runs never overlap.
+     */
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable task, long initialDelay, long period, TimeUnit unit) {
+        Objects.requireNonNull(task);
+        if (period <= 0) throw new IllegalArgumentException("period must be > 0");
+        return arm(Executors.callable(task, null), deadlineAfter(initialDelay, unit), unit.toNanos(period));
+    }
+
+    /**
+     * First run after initialDelay, then delay after the end of each run.
+     */
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable task, long initialDelay, long delay, TimeUnit unit) {
+        Objects.requireNonNull(task);
+        if (delay <= 0) throw new IllegalArgumentException("delay must be > 0");
+        return arm(Executors.callable(task, null), deadlineAfter(initialDelay, unit), -unit.toNanos(delay));
+    }
+
+    private static long deadlineAfter(long delay, TimeUnit unit) {
+        return System.nanoTime() + Math.min(unit.toNanos(Math.max(0L, delay)), Long.MAX_VALUE >> 1);
+    }
+
+    private <V> ScheduledFuture<V> arm(Callable<V> callable, long time, long period) {
+        if (isShutdown) {
+            metrics.rejected.increment();
+            throw new RejectedExecutionException("ThreadPool is shutdown");
+        }
+        TimingWheel wheel = timingWheel;
+        if (wheel == null) {
+            lock.lock();
+            try {
+                if (isShutdown) {
+                    metrics.rejected.increment();
+                    throw new RejectedExecutionException("ThreadPool is shutdown");
+                }
+                if ((wheel = timingWheel) == null) {
+                    timingWheel = wheel = new TimingWheel("SimpleThreadPool-Timer", 1, TimeUnit.MILLISECONDS,
+                            this::tryExecute);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        ScheduledFutureTask<V> task = new ScheduledFutureTask<>(callable, wheel, time, period);
+        wheel.schedule(task.timeout, time);   // throws RejectedExecutionException if shutdown won the race
+        return task;
+    }
+
+    /**
+     * Must hold lock.
+     */
+    private void stopTimingWheel() {
+        if (timingWheel != null) {
+            timingWheel.stop();
+        }
+    }
+
+    /**
+     * How long a queued task waits before it is treated as one priority level higher.
+     */
+    public void setPriorityAging(long time, TimeUnit unit) {
+        lock.lock();
+        try {
+            taskQueue.setAgingNanos(unit.toNanos(time));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expire(PriorityFutureTask<?> task) {
+        task.expire();
+        metrics.expired.increment();
+    }
+
     /**
      * Initiates an orderly shutdown: stop taking new tasks; workers finish queued tasks and exit.
      */
+    @Override
     public void shutdown() {
         lock.lock();
         try {
             isShutdown = true;
+            stopTimingWheel();
             // Wake workers so they can exit if queue empty
             notEmpty.signalAll();
             notFull.signalAll();
+            tryTerminate();
         } finally {
             lock.unlock();
         }
@@ -106,15 +493,17 @@ public class SimpleThreadPool {
      * Attempts to stop all actively executing tasks, halts processing of waiting tasks,
      * returns list of pending tasks that were in the queue.
      */
+    @Override
     public List<Runnable> shutdownNow() {
         lock.lock();
         try {
             isShutdown = true;
             isStopped = true;
+            stopTimingWheel();
 
             // Drain queue
-            List<Runnable> pending = new ArrayList<>(taskQueue);
-            taskQueue.clear();
+            List<Runnable> pending = new ArrayList<>(taskQueue.size());
+            taskQueue.drainTasksTo(pending);
 
             // Wake all workers (they will see isStopped and exit)
             notEmpty.signalAll();
@@ -124,91 +513,549 @@ public class SimpleThreadPool {
             for (Worker w : workers) {
                 w.thread.interrupt();
             }
+            tryTerminate();
             return pending;
         } finally {
             lock.unlock();
         }
     }
 
+    /**
+     * Phased shutdown, bounded by drainTimeout + interruptTimeout:
+     * 1. INTAKE_STOPPED: shutdown(); nothing new is accepted.
+     * 2. DRAINING: queued and running tasks finish normally until drainTimeout has elapsed.
+     * 3. INTERRUPTING: shutdownNow(); the queue is dropped (returned in the report) and running tasks are
+     *    interrupted, then up to interruptTimeout more for them to react.
+     * 4. FORCED: tasks still running ignored the interrupt. Their Futures are cancelled so that nobody
+     *    stays blocked in get(), and the method returns; their threads are left to finish on their own.
+     * progress receives a report at every phase change and every progressInterval while waiting.
+     * Returns the last report: phase TERMINATED on success, FORCED otherwise.
+     */
+    public ShutdownProgress shutdownGracefully(long drainTimeout, long interruptTimeout, long progressInterval,
+                                               TimeUnit unit, Consumer<? super ShutdownProgress> progress)
+            throws InterruptedException {
+        Objects.requireNonNull(progress);
+        if (progressInterval <= 0) throw new IllegalArgumentException("progressInterval must be > 0");
+        long start = System.nanoTime();
+        long intervalNanos = unit.toNanos(progressInterval);
+        List<Runnable> dropped = List.of();
+
+        shutdown();
+        progress.accept(progress(ShutdownProgress.Phase.INTAKE_STOPPED, start, dropped));
+
+        if (!awaitPhase(ShutdownProgress.Phase.DRAINING, start, unit.toNanos(drainTimeout), intervalNanos, dropped, progress)) {
+            dropped = shutdownNow();
+            if (!awaitPhase(ShutdownProgress.Phase.INTERRUPTING, start, unit.toNanos(interruptTimeout), intervalNanos,
+                    dropped, progress)) {
+                lock.lock();
+                try {
+                    for (Worker w : workers) {
+                        AgingTaskQueue.Entry current = w.current;
+                        if (current != null && current.task() instanceof Future<?> f) {
+                            f.cancel(true);
+                        }
+                    }
+                } finally {
+                    lock.unlock();
+                }
+                ShutdownProgress forced = progress(ShutdownProgress.Phase.FORCED, start, dropped);
+                progress.accept(forced);
+                return forced;
+            }
+        }
+        ShutdownProgress done = progress(ShutdownProgress.Phase.TERMINATED, start, dropped);
+        progress.accept(done);
+        return done;
+    }
+
+    /**
+     * Waits up to phaseNanos for termination, reporting phase every intervalNanos. True if terminated.
+     */
+    private boolean awaitPhase(ShutdownProgress.Phase phase, long start, long phaseNanos, long intervalNanos,
+                               List<Runnable> dropped, Consumer<? super ShutdownProgress> progress)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + phaseNanos;
+        while (true) {
+            if (isTerminated()) return true;
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L) return false;
+            progress.accept(progress(phase, start, dropped));
+            if (awaitTermination(Math.min(remaining, intervalNanos), TimeUnit.NANOSECONDS)) return true;
+        }
+    }
+
+    private ShutdownProgress progress(ShutdownProgress.Phase phase, long start, List<Runnable> dropped) {
+        lock.lock();
+        try {
+            List<Long> inFlight = new ArrayList<>();
+            for (Worker w : workers) {
+                AgingTaskQueue.Entry current = w.current;
+                if (current != null) {
+                    inFlight.add(current.id());
+                }
+            }
+            Collections.sort(inFlight);
+            return new ShutdownProgress(phase, System.nanoTime() - start, taskQueue.size(), inFlight,
+                    workers.size(), dropped);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Blocks until all worker threads have terminated, or timeout occurs.
      * Returns true if terminated, false if timeout elapsed.
      */
+    @Override
     public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
         long nanos = unit.toNanos(timeout);
-        long deadline = System.nanoTime() + nanos;
-
-        for (Worker w : workers) {
-            long timeLeft = deadline - System.nanoTime();
-            if (timeLeft <= 0) return false;
-            w.thread.join(TimeUnit.NANOSECONDS.toMillis(timeLeft));
+        lock.lock();
+        try {
+            while (!isTerminated()) {
+                if (nanos <= 0L) return false;
+                nanos = termination.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
         }
-        return true;
     }
 
     /**
      * Returns true if shutdown() or shutdownNow() has been called.
      */
+    @Override
     public boolean isShutdown() {
         return isShutdown;
     }
 
+    /**
+     * Returns true once shutdown has been requested and every worker has exited.
+     */
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return isShutdown && workers.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCorePoolSize() {
+        return corePoolSize;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * Current number of worker threads (core + non-core).
+     */
+    public int getPoolSize() {
+        lock.lock();
+        try {
+            return workers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Highest number of worker threads the pool has had at the same time.
+     */
+    public int getLargestPoolSize() {
+        lock.lock();
+        try {
+            return largestPoolSize;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current sizes, counters and latency histograms.
+     */
+    public ThreadPoolMetrics.Snapshot metrics() {
+        int poolSize, largest, idle, depth;
+        lock.lock();
+        try {
+            poolSize = workers.size();
+            largest = largestPoolSize;
+            idle = idleWorkers;
+            depth = taskQueue.size();
+        } finally {
+            lock.unlock();
+        }
+        return metrics.snapshot(poolSize, largest, idle, depth, queueCapacity);
+    }
+
+    /**
+     * Registers this pool on the platform MBean server as
+     * CustomThreadPool:type=SimpleThreadPool,name=&lt;name&gt; and returns the ObjectName
+     * (pass it to MBeanServer.unregisterMBean when the pool is retired).
+     */
+    public ObjectName registerMBean(String name) throws JMException {
+        ObjectName objectName = new ObjectName("CustomThreadPool:type=SimpleThreadPool,name=" + ObjectName.quote(name));
+        ManagementFactory.getPlatformMBeanServer()
+                .registerMBean(new StandardMBean(new MXBeanView(), ThreadPoolMXBean.class, true), objectName);
+        return objectName;
+    }
+
+    /**
+     * Must hold lock. Wakes awaitTermination() callers once the last worker is gone.
+     */
+    private void tryTerminate() {
+        if (isShutdown && workers.isEmpty()) {
+            termination.signalAll();
+        }
+    }
+
+    /**
+     * Blocks until a task is available. Returns null when the calling worker must exit:
+     * pool stopped, pool shut down with an empty queue, or a non-core worker idle for keepAlive.
+     * A worker that gets null has already been removed from the worker set.
+     */
+    private AgingTaskQueue.Entry getTask(Worker self) {
+        lock.lock();
+        try {
+            boolean timedOut = false;
+            // Wait for a task if queue empty
+            while (taskQueue.isEmpty()) {
+                if (isStopped || isShutdown) {
+                    // Hard stop requested, or no new tasks coming and queue empty -> exit
+                    removeWorker(self);
+                    return null;
+                }
+                if (timedOut && workers.size() > corePoolSize) {
+                    // idle non-core worker: decided and removed under the same lock,
+                    // so two expiring workers cannot both take the pool below core
+                    removeWorker(self);
+                    return null;
+                }
+                idleWorkers++;
+                try {
+                    if (workers.size() > corePoolSize) {
+                        timedOut = notEmpty.awaitNanos(keepAliveNanos) <= 0L;
+                    } else {
+                        notEmpty.await();
+                    }
+                } catch (InterruptedException ie) {
+                    // shutdownNow() sets isStopped before interrupting, the loop re-checks it;
+                    // any other interrupt is a stale one from a task, so just keep waiting
+                } finally {
+                    idleWorkers--;
+                }
+            }
+            if (isStopped) {
+                removeWorker(self);
+                return null;
+            }
+            AgingTaskQueue.Entry task = taskQueue.poll(System.nanoTime());
+            // signal producers that there is now room
+            notFull.signal();
+            return task;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Must hold lock.
+     */
+    private void removeWorker(Worker w) {
+        if (workers.remove(w)) {
+            tryTerminate();
+        }
+    }
+
+    /**
+     * Executor of the *Async stages of supplyAsync / runAsync futures. On one of this pool's workers a
+     * full queue runs the stage inline instead of going to the RejectionPolicy, which might block the
+     * worker on its own queue.
+     */
+    private void executeStage(Runnable stage) {
+        if (currentWorker.get() == null) {
+            execute(stage);
+        } else if (!tryExecute(stage)) {
+            stage.run();
+        }
+    }
+
+    /**
+     * CompletableFuture whose async stages default to the owning pool instead of the common ForkJoinPool.
+     */
+    private static final class PoolCompletableFuture<T> extends CompletableFuture<T> {
+        private final SimpleThreadPool pool;
+
+        PoolCompletableFuture(SimpleThreadPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public Executor defaultExecutor() {
+            return pool::executeStage;
+        }
+
+        @Override
+        public <U> CompletableFuture<U> newIncompleteFuture() {
+            return new PoolCompletableFuture<>(pool);
+        }
+    }
+
+    /**
+     * Queue entry behind supplyAsync. It is also a Future view of its CompletableFuture, so rejection
+     * policies that cancel dropped Futures, and callers of shutdownNow, can cancel it.
+     */
+    private static final class AsyncTask<T>
+            implements Runnable, Future<T>, CompletableFuture.AsynchronousCompletionTask, AgingTaskQueue.Entry {
+        private final CompletableFuture<T> future;
+        private final Supplier<T> supplier;
+        private long id;            // queue entry stamps, see accept
+        private long enqueuedAt;
+
+        AsyncTask(CompletableFuture<T> future, Supplier<T> supplier) {
+            this.future = future;
+            this.supplier = supplier;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) return;    // cancelled while queued
+            try {
+                future.complete(supplier.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return future.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return future.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return future.isDone();
+        }
+
+        @Override
+        public T get() throws InterruptedException, ExecutionException {
+            return future.get();
+        }
+
+        @Override
+        public T get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return future.get(timeout, unit);
+        }
+
+        @Override public Runnable task() { return this; }
+        @Override public long id() { return id; }
+        @Override public int priority() { return NORM_PRIORITY; }
+        @Override public long enqueuedAt() { return enqueuedAt; }
+
+        @Override
+        public void stamp(long id, long enqueuedAt) {
+            this.id = id;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /**
+     * FutureTask that carries its priority and deadline through the queue (and through rejection policies).
+     * It is its own queue entry, so submit allocates no separate wrapper.
+     */
+    private static final class PriorityFutureTask<T> extends FutureTask<T> implements AgingTaskQueue.Entry {
+        final int priority;
+        private final boolean hasDeadline;
+        private final long deadlineNanos;   // System.nanoTime() based
+        private long id;                    // queue entry stamps, see accept
+        private long enqueuedAt;
+
+        PriorityFutureTask(Callable<T> callable, int priority, Instant deadline) {
+            super(callable);
+            this.priority = priority;
+            this.hasDeadline = deadline != null;
+            this.deadlineNanos = hasDeadline ? System.nanoTime() + remainingNanos(deadline) : 0L;
+        }
+
+        boolean isExpired(long now) {
+            return hasDeadline && now - deadlineNanos > 0;
+        }
+
+        void expire() {
+            setException(new TimeoutException("deadline passed before the task started"));
+        }
+
+        @Override public Runnable task() { return this; }
+        @Override public long id() { return id; }
+        @Override public int priority() { return priority; }
+        @Override public long enqueuedAt() { return enqueuedAt; }
+
+        @Override
+        public void stamp(long id, long enqueuedAt) {
+            this.id = id;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        private static long remainingNanos(Instant deadline) {
+            try {
+                // clamped so that nanoTime() + remaining still compares correctly after wrap-around
+                return Math.min(Duration.between(Instant.now(), deadline).toNanos(), Long.MAX_VALUE >> 1);
+            } catch (ArithmeticException farFuture) {
+                return Long.MAX_VALUE >> 1;
+            }
+        }
+    }
+
+    /**
+     * Delayed or periodic task. period > 0: fixed rate, period < 0: fixed delay, 0: one-shot.
+     * The same TimingWheel.Timeout is re-armed after every periodic run.
+     */
+    private final class ScheduledFutureTask<V> extends FutureTask<V> implements ScheduledFuture<V> {
+        final TimingWheel.Timeout timeout = new TimingWheel.Timeout(this);
+        private final TimingWheel wheel;
+        private final long period;
+        private volatile long time;         // nanoTime of the next run
+
+        ScheduledFutureTask(Callable<V> callable, TimingWheel wheel, long time, long period) {
+            super(callable);
+            this.wheel = wheel;
+            this.time = time;
+            this.period = period;
+        }
+
+        @Override
+        public void run() {
+            if (period == 0) {
+                super.run();
+            } else if (runAndReset() && !isShutdown) {
+                time = period > 0 ? time + period : System.nanoTime() - period;
+                try {
+                    wheel.schedule(timeout, time);
+                } catch (RejectedExecutionException shutdownRace) {
+                    // wheel stopped between the check and the re-arm; the wheel cancelled us
+                }
+            } else if (isShutdown) {
+                cancel(false);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                timeout.cancel(wheel);
+            }
+            return cancelled;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            if (other == this) return 0;
+            return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+        }
+    }
+
     /**
      * Worker wrapper holding the thread and run loop.
      */
     private class Worker implements Runnable {
         private final Thread thread;
+        private AgingTaskQueue.Entry firstTask;
+        private volatile AgingTaskQueue.Entry current;     // task being run, for shutdown reports
 
-        Worker(String name) {
+        Worker(String name, AgingTaskQueue.Entry firstTask) {
             this.thread = new Thread(this, name);
+            this.firstTask = firstTask;
         }
 
         @Override
         public void run() {
+            currentWorker.set(this);
             try {
-                while (true) {
-                    Runnable task;
-                    lock.lock();
-                    try {
-                        // Wait for a task if queue empty
-                        while (taskQueue.isEmpty()) {
-                            if (isStopped) {
-                                // Hard stop requested: exit immediately
-                                return;
-                            }
-                            if (isShutdown) {
-                                // No new tasks coming; if queue empty -> exit
-                                if (taskQueue.isEmpty()) return;
-                            }
-                            try {
-                                notEmpty.await();
-                            } catch (InterruptedException ie) {
-                                // If interrupted and stop requested -> exit
-                                if (isStopped) return;
-                                // else continue waiting or re-check conditions
-                                Thread.currentThread().interrupt();
-                                // fall through to re-check loop conditions
-                            }
-                        }
-                        task = taskQueue.remove();
-                        // signal producers that there is now room
-                        notFull.signal();
-                    } finally {
-                        lock.unlock();
-                    }
-
+                AgingTaskQueue.Entry task = firstTask;
+                firstTask = null;
+                while (task != null || (task = getTask(this)) != null) {
                     // Execute task outside lock
+                    long start = System.nanoTime();
+                    if (task.task() instanceof PriorityFutureTask<?> p && p.isExpired(start)) {
+                        expire(p);
+                        task = null;
+                        continue;
+                    }
+                    metrics.queueWait.record(start - task.enqueuedAt());
+                    metrics.active.increment();
+                    current = task;
+                    boolean ok = false;
                     try {
-                        task.run();
+                        task.task().run();
+                        ok = true;
                     } catch (RuntimeException re) {
                         // swallow to prevent worker death; log if needed
                         System.err.println("Task threw exception: " + re.getMessage());
                         re.printStackTrace();
+                    } finally {
+                        current = null;
+                        metrics.active.decrement();
+                        metrics.runTime.record(System.nanoTime() - start);
+                        (ok ? metrics.completed : metrics.failed).increment();
                     }
+                    task = null;
                 }
             } finally {
-                // thread exiting
+                // thread exiting (normally already removed by getTask; covers Errors thrown by tasks)
+                lock.lock();
+                try {
+                    removeWorker(this);
+                } finally {
+                    lock.unlock();
+                }
             }
         }
     }
+
+    /**
+     * ThreadPoolMXBean adapter; every getter reads the live value.
+     */
+    private final class MXBeanView implements ThreadPoolMXBean {
+        @Override public int getCorePoolSize() { return corePoolSize; }
+        @Override public int getMaximumPoolSize() { return maximumPoolSize; }
+        @Override public int getPoolSize() { return metrics().getPoolSize(); }
+        @Override public int getLargestPoolSize() { return metrics().getLargestPoolSize(); }
+        @Override public int getActiveWorkers() { return metrics().getActiveWorkers(); }
+        @Override public int getQueueDepth() { return metrics().getQueueDepth(); }
+        @Override public int getQueueCapacity() { return queueCapacity; }
+
+        @Override public long getSubmittedTasks() { return metrics.submitted.sum(); }
+        @Override public long getRejectedTasks() { return metrics.rejected.sum(); }
+        @Override public long getCompletedTasks() { return metrics.completed.sum(); }
+        @Override public long getFailedTasks() { return metrics.failed.sum(); }
+        @Override public long getExpiredTasks() { return metrics.expired.sum(); }
+
+        @Override public double getQueueWaitMeanMicros() { return metrics.queueWait.snapshot().getMean() / 1_000.0; }
+        @Override public long getQueueWaitP99Micros() { return metrics.queueWait.snapshot().getP99() / 1_000; }
+        @Override public long getQueueWaitMaxMicros() { return metrics.queueWait.snapshot().getMax() / 1_000; }
+        @Override public double getRunTimeMeanMicros() { return metrics.runTime.snapshot().getMean() / 1_000.0; }
+        @Override public long getRunTimeP99Micros() { return metrics.runTime.snapshot().getP99() / 1_000; }
+        @Override public long getRunTimeMaxMicros() { return metrics.runTime.snapshot().getMax() / 1_000; }
+
+        @Override public boolean isShutdown() { return isShutdown; }
+
+        @Override
+        public void resetLatencies() {
+            metrics.queueWait.reset();
+            metrics.runTime.reset();
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package CustomThreadPool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SmallTaskBenchmark
+ *
+ * Many submitters, tiny tasks: measures the pools' own overhead per task.
+ * SimpleThreadPool pays a lock round-trip + Condition signal on every execute and a lock round-trip on
+ * every dequeue; LockFreeThreadPool pays a CAS + queue add and only unparks when no worker is spinning.
+ *
+ * Usage: SmallTaskBenchmark [workers] [submitters] [tasksPerSubmitter] [taskWork]
+ */
+public class SmallTaskBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int submitters = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int perSubmitter = args.length > 2 ? Integer.parseInt(args[2]) : 500_000;
+        int taskWork = args.length > 3 ? Integer.parseInt(args[3]) : 50;
+        int queueCapacity = 1 << 14;
+
+        System.out.println("workers=" + workers + " submitters=" + submitters + " tasks=" + submitters * perSubmitter
+                + " taskWork=" + taskWork);
+        for (int round = 0; round < 3; round++) {
+            boolean warmUp = round == 0;
+            run(warmUp ? null : "simple", new SimpleThreadPool(workers, queueCapacity), submitters, perSubmitter, taskWork);
+            run(warmUp ? null : "lock-free", new LockFreeThreadPool(workers, queueCapacity), submitters, perSubmitter, taskWork);
+        }
+    }
+
+    private static void run(String label, ThreadPool pool, int submitters, int perSubmitter, int taskWork)
+            throws InterruptedException {
+        long total = (long) submitters * perSubmitter;
+        LongAdder done = new LongAdder();
+        Runnable task = () -> {
+            long x = 0;
+            for (int i = 0; i < taskWork; i++) x += i ^ x;
+            if (x != -1) done.increment();
+        };
+
+        Thread[] threads = new Thread[submitters];
+        long start = System.nanoTime();
+        for (int s = 0; s < submitters; s++) {
+            threads[s] = new Thread(() -> {
+                for (int i = 0; i < perSubmitter; i++) {
+                    pool.execute(task);
+                }
+            }, "submitter-" + s);
+            threads[s].start();
+        }
+        for (Thread t : threads) t.join();
+        pool.shutdown();                            // queued tasks still run
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        long elapsedNanos = System.nanoTime() - start;
+
+        if (label != null) {
+            System.out.printf("%-10s %8.2f M tasks/s  %6.0f ns/task  all ran=%b%n",
+                    label, total / (elapsedNanos / 1e9) / 1e6, (double) elapsedNanos / total, done.sum() == total);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package CustomThreadPool;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ThreadPool
+ *
+ * Common surface of the pools in this package (SimpleThreadPool, WorkStealingThreadPool, ...),
+ * so drivers and benchmarks can swap the scheduling engine without touching task code.
+ *
+ * Semantics are the ones documented on SimpleThreadPool:
+ * - execute / submit: throw RejectedExecutionException once the pool is shut down.
+ * - shutdown: stop accepting new tasks; queued tasks still run.
+ * - shutdownNow: stop accepting, drop queued tasks (returned), interrupt running ones.
+ * - awaitTermination: wait for all workers to exit.
+ */
+public interface ThreadPool extends Executor {
+
+    <T> Future<T> submit(Callable<T> callable);
+
+    void shutdown();
+
+    List<Runnable> shutdownNow();
+
+    boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException;
+
+    boolean isShutdown();
+}
@@ -0,0 +1,33 @@
+package CustomThreadPool;
+
+/**
+ * JMX view of a SimpleThreadPool (see SimpleThreadPool.registerMBean).
+ * Times are in microseconds; every getter reads the live value, nothing is cached.
+ */
+public interface ThreadPoolMXBean {
+    int getCorePoolSize();
+    int getMaximumPoolSize();
+    int getPoolSize();
+    int getLargestPoolSize();
+    int getActiveWorkers();
+    int getQueueDepth();
+    int getQueueCapacity();
+
+    long getSubmittedTasks();
+    long getRejectedTasks();
+    long getCompletedTasks();
+    long getFailedTasks();
+    long getExpiredTasks();
+
+    double getQueueWaitMeanMicros();
+    long getQueueWaitP99Micros();
+    long getQueueWaitMaxMicros();
+    double getRunTimeMeanMicros();
+    long getRunTimeP99Micros();
+    long getRunTimeMaxMicros();
+
+    boolean isShutdown();
+
+    /** Clears the latency histograms (counters are cumulative and keep their values). */
+    void resetLatencies();
+}
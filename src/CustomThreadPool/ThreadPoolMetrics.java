@@ -0,0 +1,100 @@
+package CustomThreadPool;
+
+import Metrics.LatencyHistogram;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ThreadPoolMetrics
+ *
+ * Runtime counters of a SimpleThreadPool. The pool records into the package-private fields on its hot
+ * paths; callers only ever see an immutable Snapshot.
+ *
+ * Recording cost:
+ * - counters are striped LongAdders, so workers and submitters never contend on one cache line
+ * - queue-wait and run time go into LatencyHistograms (one atomic increment per value)
+ * - nothing on the recording path allocates or takes a lock
+ */
+public final class ThreadPoolMetrics {
+    final LongAdder submitted = new LongAdder();    // accepted by the pool (queued or handed to a new worker)
+    final LongAdder rejected = new LongAdder();     // dropped or refused by the RejectionPolicy, or refused at shutdown
+    final LongAdder completed = new LongAdder();    // run() returned normally
+    final LongAdder failed = new LongAdder();       // run() threw
+    final LongAdder expired = new LongAdder();      // deadline passed before a worker started it
+    final LongAdder active = new LongAdder();       // workers currently inside run()
+    final LatencyHistogram queueWait = new LatencyHistogram();
+    final LatencyHistogram runTime = new LatencyHistogram();
+
+    Snapshot snapshot(int poolSize, int largestPoolSize, int idleWorkers, int queueDepth, int queueCapacity) {
+        return new Snapshot(poolSize, largestPoolSize, (int) active.sum(), idleWorkers, queueDepth, queueCapacity,
+                submitted.sum(), rejected.sum(), completed.sum(), failed.sum(), expired.sum(),
+                queueWait.snapshot(), runTime.snapshot());
+    }
+
+    /**
+     * Point-in-time view of the pool. Gauges (sizes, depth) are read together under the pool lock;
+     * counters and histograms are read right after, so they may be a few tasks ahead of the gauges.
+     */
+    public static final class Snapshot {
+        private final int poolSize;
+        private final int largestPoolSize;
+        private final int activeWorkers;
+        private final int idleWorkers;
+        private final int queueDepth;
+        private final int queueCapacity;
+        private final long submittedTasks;
+        private final long rejectedTasks;
+        private final long completedTasks;
+        private final long failedTasks;
+        private final long expiredTasks;
+        private final LatencyHistogram.Snapshot queueWait;
+        private final LatencyHistogram.Snapshot runTime;
+
+        Snapshot(int poolSize, int largestPoolSize, int activeWorkers, int idleWorkers, int queueDepth,
+                 int queueCapacity, long submittedTasks, long rejectedTasks, long completedTasks, long failedTasks,
+                 long expiredTasks, LatencyHistogram.Snapshot queueWait, LatencyHistogram.Snapshot runTime) {
+            this.poolSize = poolSize;
+            this.largestPoolSize = largestPoolSize;
+            this.activeWorkers = activeWorkers;
+            this.idleWorkers = idleWorkers;
+            this.queueDepth = queueDepth;
+            this.queueCapacity = queueCapacity;
+            this.submittedTasks = submittedTasks;
+            this.rejectedTasks = rejectedTasks;
+            this.completedTasks = completedTasks;
+            this.failedTasks = failedTasks;
+            this.expiredTasks = expiredTasks;
+            this.queueWait = queueWait;
+            this.runTime = runTime;
+        }
+
+        public int getPoolSize() { return poolSize; }
+        public int getLargestPoolSize() { return largestPoolSize; }
+        public int getActiveWorkers() { return activeWorkers; }
+        public int getIdleWorkers() { return idleWorkers; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getQueueCapacity() { return queueCapacity; }
+        public long getSubmittedTasks() { return submittedTasks; }
+        public long getRejectedTasks() { return rejectedTasks; }
+        public long getCompletedTasks() { return completedTasks; }
+        public long getFailedTasks() { return failedTasks; }
+        public long getExpiredTasks() { return expiredTasks; }
+
+        /** Time between a task being queued and a worker starting it (0 for tasks handed to a new worker). */
+        public LatencyHistogram.Snapshot getQueueWait() { return queueWait; }
+
+        /** Time spent inside task.run(). */
+        public LatencyHistogram.Snapshot getRunTime() { return runTime; }
+
+        @Override
+        public String toString() {
+            return "pool=" + poolSize + " (largest " + largestPoolSize + ")"
+                    + " active=" + activeWorkers + " idle=" + idleWorkers
+                    + " queue=" + queueDepth + "/" + queueCapacity
+                    + " submitted=" + submittedTasks + " rejected=" + rejectedTasks
+                    + " completed=" + completedTasks + " failed=" + failedTasks + " expired=" + expiredTasks
+                    + "\n  queue-wait: " + queueWait
+                    + "\n  run-time:   " + runTime;
+        }
+    }
+}
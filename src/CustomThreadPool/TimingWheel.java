@@ -0,0 +1,289 @@
+package CustomThreadPool;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Predicate;
+
+/**
+ * TimingWheel
+ *
+ * Hashed hierarchical timing wheel (classic kernel-timer layout) backing SimpleThreadPool.schedule*.
+ *
+ * Layout:
+ * - LEVELS wheels of 64 slots each; level l slot covers 64^l ticks (tick = 1 ms by default).
+ *   6 levels cover 64^6 ticks (~2 years at 1 ms); anything further is parked in the last level and
+ *   cascades again; every cascade re-places a timer from its real deadline, never from the parked tick.
+ * - A timer due in d ticks lives in the lowest level with d < 64^(l+1). Whenever level l wraps to
+ *   slot 0, the current slot of level l+1 is cascaded: its timers are re-inserted one level lower.
+ * - Each slot is a doubly linked list, so insert and unlink are O(1); there is no heap.
+ *
+ * Threading:
+ * - One ticker thread owns all wheel state; nothing in the wheel is locked.
+ * - schedule() and cancel() from other threads go through lock-free MPSC queues that the ticker
+ *   drains once per tick, so both are O(1) for the caller.
+ * - With no timers pending the ticker parks until the next schedule() instead of ticking idle.
+ *
+ * Expiry hands the task to the dispatcher (the pool's tryExecute). If the pool's queue is full the
+ * timer is retried on the next tick, so a saturated pool delays timers but never blocks the wheel.
+ */
+final class TimingWheel {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+
+    private static final int PENDING = 0;
+    private static final int EXPIRED = 1;
+    private static final int CANCELLED = 2;
+
+    /**
+     * One scheduled expiry of task. Periodic tasks re-arm the same Timeout after each run.
+     */
+    static final class Timeout {
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        final Runnable task;
+        private volatile int state;
+        private volatile long deadline;         // System.nanoTime() based
+
+        // ---- owned by the ticker thread ----
+        private long expireTick;
+        private Bucket bucket;
+        private Timeout prev, next;
+
+        Timeout(Runnable task) {
+            this.task = task;
+        }
+
+        long deadline() {
+            return deadline;
+        }
+
+        /**
+         * O(1): flips the state and leaves the unlink to the ticker.
+         * Returns false if the timer already fired (or was already cancelled).
+         */
+        boolean cancel(TimingWheel wheel) {
+            if (!STATE.compareAndSet(this, PENDING, CANCELLED)) return false;
+            wheel.cancelled.add(this);
+            wheel.wakeIfIdle();
+            return true;
+        }
+    }
+
+    private static final class Bucket {
+        private Timeout head, tail;
+
+        void add(Timeout t) {
+            t.bucket = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) head = t; else tail.next = t;
+            tail = t;
+        }
+
+        void unlink(Timeout t) {
+            if (t.prev == null) head = t.next; else t.prev.next = t.next;
+            if (t.next == null) tail = t.prev; else t.next.prev = t.prev;
+            t.prev = t.next = null;
+            t.bucket = null;
+        }
+
+        /** Detaches the whole list and returns its head. */
+        Timeout clear() {
+            Timeout first = head;
+            head = tail = null;
+            return first;
+        }
+    }
+
+    private final long tickNanos;
+    private final long startTime;
+    private final Bucket[][] wheel = new Bucket[LEVELS][SLOTS];
+    private final Predicate<Runnable> dispatcher;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final Thread ticker;
+
+    private long currentTick;           // next tick to process, ticker only
+    private int timers;                 // timers linked into the wheel, ticker only
+    private volatile boolean idle;      // ticker is parked with an empty wheel
+    private volatile boolean stopped;
+
+    /**
+     * dispatcher: hands an expired task to the pool, returns false if it has no room right now.
+     */
+    TimingWheel(String name, long tick, TimeUnit unit, Predicate<Runnable> dispatcher) {
+        if (tick <= 0) throw new IllegalArgumentException("tick must be > 0");
+        this.tickNanos = unit.toNanos(tick);
+        this.dispatcher = dispatcher;
+        for (Bucket[] level : wheel) {
+            for (int i = 0; i < SLOTS; i++) level[i] = new Bucket();
+        }
+        this.startTime = System.nanoTime();
+        this.ticker = new Thread(this::runTicker, name);
+        this.ticker.setDaemon(true);
+        this.ticker.start();
+    }
+
+    /**
+     * Arms a new Timeout, or re-arms one that has fired. Safe from any thread.
+     */
+    void schedule(Timeout t, long deadline) {
+        if (!Timeout.STATE.compareAndSet(t, EXPIRED, PENDING) && t.state != PENDING) {
+            return;     // periodic re-arm that lost to cancel()
+        }
+        t.deadline = deadline;
+        added.add(t);
+        if (stopped) {
+            // raced with stop(): the ticker may already have done its final drain
+            abandon(t);
+            throw new RejectedExecutionException("TimingWheel is stopped");
+        }
+        wakeIfIdle();
+    }
+
+    /**
+     * Stops the ticker. Every timer still pending is cancelled (and its Future, if any).
+     */
+    void stop() {
+        stopped = true;
+        LockSupport.unpark(ticker);
+    }
+
+    private void wakeIfIdle() {
+        if (idle) LockSupport.unpark(ticker);
+    }
+
+    // ---------------- TICKER ----------------
+
+    private void runTicker() {
+        while (!stopped) {
+            drainCancelled();
+            drainAdded();
+            if (timers == 0) {
+                parkIdle();
+                continue;
+            }
+            long nowTick = (System.nanoTime() - startTime) / tickNanos;
+            while (currentTick <= nowTick) {
+                processTick(currentTick);
+                currentTick++;
+            }
+            long nextTickAt = startTime + currentTick * tickNanos;
+            LockSupport.parkNanos(this, nextTickAt - System.nanoTime());
+        }
+        drainCancelled();
+        drainAdded();
+        for (Bucket[] level : wheel) {
+            for (Bucket b : level) {
+                for (Timeout t = b.clear(); t != null; ) {
+                    Timeout next = t.next;
+                    abandon(t);
+                    t = next;
+                }
+            }
+        }
+    }
+
+    private void parkIdle() {
+        idle = true;
+        if (added.isEmpty() && cancelled.isEmpty() && !stopped) {
+            LockSupport.park(this);
+        }
+        idle = false;
+        // nothing was linked while we slept, so skipping the missed ticks is safe
+        currentTick = Math.max(currentTick, (System.nanoTime() - startTime) / tickNanos);
+    }
+
+    private void drainAdded() {
+        Timeout t;
+        while ((t = added.poll()) != null) {
+            if (t.state == PENDING) {
+                insert(t, deadlineTick(t));
+            }
+        }
+    }
+
+    private void drainCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            if (t.bucket != null) {
+                t.bucket.unlink(t);
+                timers--;
+            }
+        }
+    }
+
+    private long deadlineTick(Timeout t) {
+        return (t.deadline - startTime + tickNanos - 1) / tickNanos;   // round up: never fire early
+    }
+
+    private void insert(Timeout t, long tick) {
+        t.expireTick = Math.max(tick, currentTick);
+        long delta = t.expireTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        if (level == LEVELS - 1 && delta >= 1L << (SLOT_BITS * LEVELS)) {
+            // beyond the wheel's horizon: park in the farthest slot, it cascades back here
+            t.expireTick = currentTick + (1L << (SLOT_BITS * LEVELS)) - 1;
+        }
+        int slot = (int) (t.expireTick >>> (SLOT_BITS * level)) & SLOT_MASK;
+        wheel[level][slot].add(t);
+        timers++;
+    }
+
+    private void processTick(long tick) {
+        // cascade: every time a level wraps, pull the current slot of the level above down
+        for (int level = 1; level < LEVELS; level++) {
+            if ((tick & ((1L << (SLOT_BITS * level)) - 1)) != 0) break;
+            int slot = (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK;
+            for (Timeout t = wheel[level][slot].clear(); t != null; ) {
+                Timeout next = t.next;
+                t.bucket = null;
+                timers--;
+                insert(t, deadlineTick(t));  // expireTick may be clamped to the horizon: recompute
+                t = next;
+            }
+        }
+
+        for (Timeout t = wheel[0][(int) tick & SLOT_MASK].clear(); t != null; ) {
+            Timeout next = t.next;
+            t.bucket = null;
+            t.prev = t.next = null;
+            timers--;
+            expire(t, tick);
+            t = next;
+        }
+    }
+
+    private void expire(Timeout t, long tick) {
+        if (!Timeout.STATE.compareAndSet(t, PENDING, EXPIRED)) return;     // lost to cancel()
+        boolean dispatched;
+        try {
+            dispatched = dispatcher.test(t.task);
+        } catch (RejectedExecutionException shutdown) {
+            abandon(t);
+            return;
+        }
+        if (!dispatched) {
+            t.state = PENDING;
+            insert(t, tick + 1);    // pool saturated: try again next tick
+        }
+    }
+
+    private static void abandon(Timeout t) {
+        t.state = CANCELLED;
+        if (t.task instanceof Future<?> f) {
+            f.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package CustomThreadPool;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.*;
+
+/**
+ * VirtualThreadPool
+ *
+ * Virtual-thread-per-task mode of the ThreadPool interface, for tasks that mostly block on I/O.
+ * There are no long-lived workers and no task queue: every accepted task starts on its own virtual
+ * thread right away.
+ *
+ * Backpressure:
+ * - A Semaphore with maxInFlight permits bounds the number of tasks that are running at once.
+ *   It plays the role of SimpleThreadPool's poolSize + queueCapacity: once it is exhausted,
+ *   execute blocks the submitter until a running task finishes.
+ * - tryExecute never blocks; offer waits up to a timeout.
+ *
+ * Semantics (same as SimpleThreadPool):
+ * - execute / submit: RejectedExecutionException once shut down, including for submitters that were
+ *   blocked waiting for a permit when shutdown happened.
+ * - shutdown: stop accepting; running tasks finish.
+ * - shutdownNow: stop accepting and interrupt every running task. The returned list is always empty:
+ *   nothing is ever queued, accepted tasks are already running.
+ * - awaitTermination: waits until every task thread has finished.
+ *
+ * Requires JDK 21+.
+ */
+public class VirtualThreadPool implements ThreadPool {
+    // Released once at shutdown so that submitters blocked in acquire() wake up and see isShutdown.
+    private static final int SHUTDOWN_PERMITS = Integer.MAX_VALUE / 2;
+
+    private final int maxInFlight;
+    private final Semaphore permits;
+    private final Thread.Builder threadBuilder = Thread.ofVirtual().name("VirtualThreadPool-Task-", 0);
+
+    private final Lock lock = new ReentrantLock();
+    private final Condition termination = lock.newCondition();
+    private final Set<Thread> running = new HashSet<>();   // guarded by lock
+    private volatile boolean isShutdown = false;
+
+    public VirtualThreadPool(int maxInFlight) {
+        if (maxInFlight <= 0 || maxInFlight > Integer.MAX_VALUE / 4) {
+            throw new IllegalArgumentException("maxInFlight must be in [1, " + Integer.MAX_VALUE / 4 + "]");
+        }
+        this.maxInFlight = maxInFlight;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Starts task on a new virtual thread, waiting for a permit if maxInFlight tasks are running.
+     */
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task);
+        rejectIfShutdown();
+        try {
+            permits.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a permit", ie);
+        }
+        start(task);
+    }
+
+    /**
+     * Non-blocking execute: returns false if maxInFlight tasks are already running.
+     */
+    public boolean tryExecute(Runnable task) {
+        Objects.requireNonNull(task);
+        rejectIfShutdown();
+        if (!permits.tryAcquire()) {
+            return false;
+        }
+        start(task);
+        return true;
+    }
+
+    /**
+     * Waits up to timeout for a permit. Returns false if the timeout elapsed.
+     */
+    public boolean offer(Runnable task, long timeout, TimeUnit unit) throws InterruptedException {
+        Objects.requireNonNull(task);
+        rejectIfShutdown();
+        if (!permits.tryAcquire(timeout, unit)) {
+            return false;
+        }
+        start(task);
+        return true;
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> callable) {
+        Objects.requireNonNull(callable);
+        FutureTask<T> ft = new FutureTask<>(callable);
+        execute(ft);
+        return ft;
+    }
+
+    /**
+     * Caller holds a permit. Registers and starts the task thread under the lock, so shutdownNow
+     * never misses a thread and never interrupts one that has not started.
+     */
+    private void start(Runnable task) {
+        lock.lock();
+        try {
+            if (isShutdown) {
+                permits.release();
+                throw new RejectedExecutionException("ThreadPool is shutdown");
+            }
+            Thread t = threadBuilder.unstarted(() -> runTask(task));
+            running.add(t);
+            t.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void runTask(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException re) {
+            // same policy as SimpleThreadPool's workers: report and carry on
+            System.err.println("Task threw exception: " + re.getMessage());
+            re.printStackTrace();
+        } finally {
+            lock.lock();
+            try {
+                running.remove(Thread.currentThread());
+                if (isShutdown && running.isEmpty()) {
+                    termination.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+            permits.release();
+        }
+    }
+
+    private void rejectIfShutdown() {
+        if (isShutdown) {
+            throw new RejectedExecutionException("ThreadPool is shutdown");
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (isShutdown) return;
+            isShutdown = true;
+            permits.release(SHUTDOWN_PERMITS);   // wake blocked submitters; start() rejects them
+            if (running.isEmpty()) {
+                termination.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        lock.lock();
+        try {
+            for (Thread t : running) {
+                t.interrupt();
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new ArrayList<>();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!isTerminated()) {
+                if (nanos <= 0L) return false;
+                nanos = termination.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    public boolean isTerminated() {
+        lock.lock();
+        try {
+            return isShutdown && running.isEmpty();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Number of tasks currently running.
+     */
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return running.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
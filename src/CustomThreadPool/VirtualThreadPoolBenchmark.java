@@ -0,0 +1,80 @@
+package CustomThreadPool;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * VirtualThreadPoolBenchmark
+ *
+ * Same workloads on SimpleThreadPool (platform workers) and VirtualThreadPool (virtual thread per task):
+ * - io:  every task sleeps ioMillis (stands in for a blocking call) → virtual threads should win by
+ *        roughly maxInFlight / platformThreads, until the in-flight limit is the bottleneck
+ * - cpu: every task burns a little CPU → no win expected; shows the per-task thread cost
+ *
+ * Both pools get the same in-flight bound: SimpleThreadPool(platformThreads, maxInFlight - platformThreads)
+ * vs VirtualThreadPool(maxInFlight), so the submitter sees the same backpressure.
+ *
+ * Usage: VirtualThreadPoolBenchmark [tasks] [ioMillis] [platformThreads] [maxInFlight]
+ */
+public class VirtualThreadPoolBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long ioMillis = args.length > 1 ? Long.parseLong(args[1]) : 10;
+        int platformThreads = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+        int maxInFlight = args.length > 3 ? Integer.parseInt(args[3]) : 5_000;
+
+        System.out.println("tasks=" + tasks + " io=" + ioMillis + "ms platformThreads=" + platformThreads
+                + " maxInFlight=" + maxInFlight);
+
+        for (String workload : new String[]{"io", "cpu"}) {
+            // first pair is warm-up
+            for (int round = 0; round < 2; round++) {
+                boolean warmUp = round == 0;
+                int n = warmUp ? tasks / 10 : tasks;
+                run(warmUp ? null : "platform(" + platformThreads + ") " + workload,
+                        new SimpleThreadPool(platformThreads, maxInFlight - platformThreads), workload, n, ioMillis);
+                run(warmUp ? null : "virtual(" + maxInFlight + ") " + workload,
+                        new VirtualThreadPool(maxInFlight), workload, n, ioMillis);
+            }
+        }
+    }
+
+    private static void run(String label, ThreadPool pool, String workload, int tasks, long ioMillis)
+            throws InterruptedException {
+        LongAdder done = new LongAdder();
+        CountDownLatch finished = new CountDownLatch(tasks);
+        Runnable task = workload.equals("io")
+                ? () -> {
+                    try {
+                        Thread.sleep(ioMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    done.increment();
+                    finished.countDown();
+                }
+                : () -> {
+                    long x = 0;
+                    for (int i = 0; i < 20_000; i++) x += i * 31L ^ x;
+                    if (x != 42) done.increment();
+                    finished.countDown();
+                };
+
+        long start = System.nanoTime();
+        for (int i = 0; i < tasks; i++) {
+            pool.execute(task);     // blocks when the in-flight bound is reached
+        }
+        finished.await();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+
+        if (label != null) {
+            long perSec = elapsedMs == 0 ? done.sum() : done.sum() * 1000 / elapsedMs;
+            System.out.printf("%-22s elapsed=%6d ms  tasks=%7d  throughput=%8d tasks/s%n",
+                    label, elapsedMs, done.sum(), perSec);
+        }
+    }
+}
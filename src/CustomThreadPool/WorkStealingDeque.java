@@ -0,0 +1,90 @@
+package CustomThreadPool;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * WorkStealingDeque
+ *
+ * Fixed-capacity Chase-Lev deque, one per worker of WorkStealingThreadPool.
+ *
+ * - Owner thread only: push() / pop() at the bottom (LIFO → hot caches, depth-first recursion).
+ * - Any thread: steal() from the top (FIFO → thieves take the oldest, usually biggest, task).
+ * - No lock: the owner touches only bottom, thieves CAS top; the two sides only race for the
+ *   very last element, which is settled by a CAS on top.
+ * - Java volatile accesses are sequentially consistent, which gives the store(bottom) → load(top)
+ *   ordering the algorithm needs in pop().
+ *
+ * - Whoever takes a task (owner or thief) nulls its slot, so finished tasks are not kept reachable.
+ *   push() never writes a slot that is still non-null: a thief that won it on the previous lap
+ *   may not have cleared it yet.
+ *
+ * push() returns false when full; the pool then falls back to its shared submission queue.
+ */
+final class WorkStealingDeque {
+    private final AtomicReferenceArray<Runnable> tasks;
+    private final int mask;
+    private final AtomicLong top = new AtomicLong();   // next slot to steal
+    private volatile long bottom = 0;                  // next slot to push (owner writes only)
+
+    WorkStealingDeque(int capacity) {
+        int length = Integer.highestOneBit(Math.max(2, capacity));
+        if (length < capacity) length <<= 1;
+        this.tasks = new AtomicReferenceArray<>(length);
+        this.mask = length - 1;
+    }
+
+    /** Owner only. */
+    boolean push(Runnable task) {
+        long b = bottom;
+        long t = top.get();
+        if (b - t > mask) return false;                // full
+        int index = (int) b & mask;
+        if (tasks.get(index) != null) return false;    // a thief still has to clear this slot: as good as full
+        tasks.set(index, task);
+        bottom = b + 1;                                // publish to thieves
+        return true;
+    }
+
+    /** Owner only. Returns null when empty. */
+    Runnable pop() {
+        long b = bottom - 1;
+        bottom = b;                                    // reserve the bottom slot first...
+        long t = top.get();                            // ...then look at what thieves did
+        if (t > b) {
+            bottom = b + 1;                            // was already empty
+            return null;
+        }
+        int index = (int) b & mask;
+        Runnable task = tasks.get(index);
+        if (t == b) {
+            // last element: race thieves for it through top
+            if (top.compareAndSet(t, t + 1)) {
+                tasks.set(index, null);
+            } else {
+                task = null;                           // the winning thief clears the slot
+            }
+            bottom = b + 1;
+            return task;
+        }
+        tasks.set(index, null);                        // slot is below every thief's top: safe to clear
+        return task;
+    }
+
+    /** Any thread. Returns null when empty or when it lost a race (caller just moves on). */
+    Runnable steal() {
+        long t = top.get();
+        long b = bottom;
+        if (t >= b) return null;
+        int index = (int) t & mask;
+        Runnable task = tasks.get(index);
+        if (!top.compareAndSet(t, t + 1)) return null;
+        // the slot is ours: push() does not reuse it until it is null again
+        tasks.set(index, null);
+        return task;
+    }
+
+    boolean isEmpty() {
+        return top.get() >= bottom;
+    }
+}
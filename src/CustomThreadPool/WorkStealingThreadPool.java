@@ -0,0 +1,273 @@
+package CustomThreadPool;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.*;
+
+/**
+ * WorkStealingThreadPool
+ *
+ * Work-stealing mode of SimpleThreadPool: same API and shutdown semantics, different scheduling.
+ *
+ * SimpleThreadPool funnels every execute() and every worker take through ONE LinkedList + ONE lock.
+ * Fork/join-style workloads (a task splits itself and submits the halves) hammer that lock.
+ *
+ * Scheduling:
+ * - Each Worker owns a WorkStealingDeque (lock-free).
+ * - execute() from a worker of this pool → pushed on that worker's own deque (LIFO, no shared state).
+ * - execute() from any other thread → shared submission queue, bounded by queueCapacity
+ *   (blocks when full, like SimpleThreadPool).
+ * - A worker looks for work in order: own deque (LIFO) → submission queue → steal from the others (FIFO).
+ * - Idle workers sleep on a Condition. The lock behind it is only taken to go to sleep, or by a
+ *   submitter when the idle count says somebody is actually sleeping.
+ *
+ * Shutdown:
+ * - shutdown(): external submissions are rejected; tasks already running may still fork subtasks
+ *   (so recursive work completes); workers exit once nothing is left anywhere.
+ * - shutdownNow(): drains the submission queue and every deque, interrupts workers, returns pending tasks.
+ */
+public class WorkStealingThreadPool implements ThreadPool {
+    private static final int DEQUE_CAPACITY = 1 << 13;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);   // safety net only
+
+    private final int poolSize;
+    private final Worker[] workers;
+    private final ConcurrentLinkedQueue<Runnable> submissionQueue = new ConcurrentLinkedQueue<>();
+    private final Semaphore submissionPermits;                  // bounds submissionQueue
+
+    private final Lock idleLock = new ReentrantLock();
+    private final Condition workAvailable = idleLock.newCondition();
+    private final AtomicInteger idleWorkers = new AtomicInteger();
+    private final AtomicInteger externalSubmitters = new AtomicInteger();   // between shutdown check and add
+
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+
+    private volatile boolean isShutdown = false;
+    private volatile boolean isStopped = false;
+    private volatile boolean drained = false;   // shutdown + every worker idle + nothing queued: final
+
+    public WorkStealingThreadPool(int poolSize, int queueCapacity) {
+        if (poolSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("poolSize and queueCapacity must be > 0");
+        }
+        this.poolSize = poolSize;
+        this.submissionPermits = new Semaphore(queueCapacity);
+        this.workers = new Worker[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            workers[i] = new Worker(i, "WorkStealingThreadPool-Worker-" + i);
+        }
+        for (Worker w : workers) {
+            w.thread.start();
+        }
+    }
+
+    /**
+     * Execute a Runnable. From a worker thread: pushed on its local deque (run inline if that is full).
+     * From outside: blocks while the submission queue is full.
+     * Throws RejectedExecutionException if the pool is shutdown (outside submissions) or stopped.
+     */
+    @Override
+    public void execute(Runnable task) {
+        Objects.requireNonNull(task);
+        if (isStopped) throw new RejectedExecutionException("ThreadPool is stopped");
+
+        Worker self = currentWorker.get();
+        if (self != null) {
+            if (self.deque.push(task)) {
+                wakeIdleWorker();   // someone idle can steal it
+            } else {
+                task.run();         // local deque full: run inline instead of blocking a worker
+            }
+            return;
+        }
+        if (isShutdown) {
+            throw new RejectedExecutionException("ThreadPool is shutdown");
+        }
+        try {
+            submissionPermits.acquire();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting to enqueue", ie);
+        }
+        // announce ourselves before the check: a worker deciding to drain reads externalSubmitters after
+        // isShutdown, so either we see the shutdown here or it waits for (and then sees) our task
+        externalSubmitters.incrementAndGet();
+        try {
+            if (isShutdown) {
+                submissionPermits.release();
+                throw new RejectedExecutionException("ThreadPool is shutdown");
+            }
+            submissionQueue.add(task);
+        } finally {
+            externalSubmitters.decrementAndGet();
+        }
+        wakeIdleWorker();
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> callable) {
+        Objects.requireNonNull(callable);
+        FutureTask<T> ft = new FutureTask<>(callable);
+        execute(ft);
+        return ft;
+    }
+
+    @Override
+    public void shutdown() {
+        isShutdown = true;
+        wakeAllWorkers();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        isShutdown = true;
+        isStopped = true;
+        List<Runnable> pending = new ArrayList<>();
+        Runnable r;
+        while ((r = submissionQueue.poll()) != null) {
+            pending.add(r);
+        }
+        for (Worker w : workers) {
+            while (!w.deque.isEmpty()) {
+                if ((r = w.deque.steal()) != null) pending.add(r);
+            }
+        }
+        wakeAllWorkers();
+        for (Worker w : workers) {
+            w.thread.interrupt();
+        }
+        return pending;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (Worker w : workers) {
+            long timeLeft = deadline - System.nanoTime();
+            if (timeLeft <= 0) return false;
+            w.thread.join(TimeUnit.NANOSECONDS.toMillis(timeLeft) + 1);
+            if (w.thread.isAlive()) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return isShutdown;
+    }
+
+    private void wakeIdleWorker() {
+        if (idleWorkers.get() == 0) return;   // fast path: everybody busy, no lock
+        idleLock.lock();
+        try {
+            workAvailable.signal();
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    private void wakeAllWorkers() {
+        idleLock.lock();
+        try {
+            workAvailable.signalAll();
+        } finally {
+            idleLock.unlock();
+        }
+    }
+
+    /**
+     * Worker: own deque first, then the shared queue, then steal.
+     */
+    private class Worker implements Runnable {
+        private final int index;
+        private final Thread thread;
+        private final WorkStealingDeque deque = new WorkStealingDeque(DEQUE_CAPACITY);
+
+        Worker(int index, String name) {
+            this.index = index;
+            this.thread = new Thread(this, name);
+        }
+
+        @Override
+        public void run() {
+            currentWorker.set(this);
+            while (!isStopped) {
+                Runnable task = findTask();
+                if (task == null) {
+                    if (!awaitWork()) return;
+                    continue;
+                }
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    // swallow Errors too: a dead worker would never count as idle again and the
+                    // shutdown drain (allWorkersIdle) would wait forever
+                    System.err.println("Task threw exception: " + t);
+                    t.printStackTrace();
+                }
+            }
+        }
+
+        private Runnable findTask() {
+            Runnable task = deque.pop();
+            if (task != null) return task;
+            task = submissionQueue.poll();
+            if (task != null) {
+                submissionPermits.release();
+                return task;
+            }
+            // start at a different victim per worker so thieves spread out
+            for (int i = 1; i < poolSize; i++) {
+                Worker victim = workers[(index + i) % poolSize];
+                task = victim.deque.steal();
+                if (task != null) return task;
+            }
+            return null;
+        }
+
+        private boolean hasVisibleWork() {
+            if (!submissionQueue.isEmpty()) return true;
+            for (Worker w : workers) {
+                if (!w.deque.isEmpty()) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Sleeps until work may be available. Returns false when the worker should exit.
+         */
+        private boolean awaitWork() {
+            idleLock.lock();
+            try {
+                idleWorkers.incrementAndGet();
+                try {
+                    // re-check after announcing ourselves idle: a submitter that saw idleWorkers == 0
+                    // pushed its task before we incremented, so we see it here
+                    if (hasVisibleWork()) return true;
+                    if (isStopped || drained) return false;
+                    if (isShutdown && allWorkersIdle() && externalSubmitters.get() == 0 && !hasVisibleWork()) {
+                        // nobody is running a task that could fork more work and no submitter passed the
+                        // shutdown check with its task still in hand (re-checked after reading the count)
+                        // → nothing can arrive anymore
+                        drained = true;
+                        workAvailable.signalAll();   // let the other idle workers notice and exit too
+                        return false;
+                    }
+                    workAvailable.awaitNanos(IDLE_PARK_NANOS);
+                } finally {
+                    idleWorkers.decrementAndGet();
+                }
+                return !isStopped;
+            } catch (InterruptedException ie) {
+                return !isStopped;
+            } finally {
+                idleLock.unlock();
+            }
+        }
+
+        private boolean allWorkersIdle() {
+            return idleWorkers.get() == poolSize;
+        }
+    }
+}
@@ -1,10 +1,21 @@
 package CyclicBarrier;
 
+import Metrics.ContentionProfile;
+
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * MyCyclicBarrier
+ *
+ * Contention profiling (opt-in, see enableProfiling) records as Metrics.ContentionProfile "name/await":
+ * - acquisitions: passed awaits (contended = all but the thread that tripped the barrier)
+ * - wait time: arrival → release, i.e. how long each party waited for the slowest one
+ * - hold time: barrierAction run time (every party is held while it runs)
+ * - queue length: parties waiting right now; failed: awaits that ended with an exception
+ */
 public class MyCyclicBarrier {
 
     private final int parties;           // Number of threads required to trip the barrier
@@ -16,6 +27,7 @@ public class MyCyclicBarrier {
     private int waiting = 0;             // Number of threads currently waiting
     private int generation = 0;          // Barrier cycle id (increments each trip)
     private boolean broken = false;
+    private volatile ContentionProfile profile;    // null unless profiling
 
     public MyCyclicBarrier(int parties, Runnable action) {
         if (parties <= 0) throw new IllegalArgumentException();
@@ -28,6 +40,10 @@ public class MyCyclicBarrier {
     }
 
     public int await() throws InterruptedException, BrokenBarrierException {
+        ContentionProfile profile = this.profile;
+        long start = profile != null ? System.nanoTime() : 0L;
+        boolean passed = false;
+        boolean last = false;
         lock.lock();
         try {
             int arrivalGeneration = generation;
@@ -40,29 +56,47 @@ public class MyCyclicBarrier {
 
             if (waiting == parties) {
                 // Last thread arrives
+                last = true;
 
                 if (barrierAction != null) {
+                    long actionStart = profile != null ? System.nanoTime() : 0L;
                     barrierAction.run();
+                    if (profile != null) profile.released(System.nanoTime() - actionStart);
                 }
 
                 // Reset for next cycle
                 nextGeneration();
+                passed = true;
                 return 0; // For the last arriving thread
             }
 
             // Not last thread → wait
-            while (arrivalGeneration == generation && !broken) {
-                trip.await();
+            if (profile != null) profile.enqueue();
+            try {
+                while (arrivalGeneration == generation && !broken) {
+                    trip.await();
+                }
+            } finally {
+                if (profile != null) profile.dequeue();
             }
 
             if (broken) {
                 throw new BrokenBarrierException();
             }
 
+            passed = true;
             return waiting;
 
         } finally {
             lock.unlock();
+            if (profile != null) {
+                long waited = System.nanoTime() - start;
+                if (passed) {
+                    profile.acquired(waited, !last);
+                } else {
+                    profile.failed(waited);
+                }
+            }
         }
     }
 
@@ -80,6 +114,38 @@ public class MyCyclicBarrier {
     public boolean isBroken() {
         return broken;
     }
+
+    /**
+     * Starts recording contention statistics as name/await (see Metrics.ContentionProfile).
+     */
+    public void enableProfiling(String name) {
+        lock.lock();
+        try {
+            disableProfiling();
+            profile = ContentionProfile.register(name, "await");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void disableProfiling() {
+        lock.lock();
+        try {
+            if (profile != null) {
+                profile.unregister();
+                profile = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The await profile, or null if profiling is off.
+     */
+    public ContentionProfile getProfile() {
+        return profile;
+    }
 }
 /*
 	Each barrier cycle has a generation number.
@@ -0,0 +1,283 @@
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/*🚀 BoundedBlockingQueue — Version D: lock-free MPMC ring + spin → yield → park
+ *
+ * Same blocking API as BoundedBlockingQueue:
+ *
+ *    public LockFreeBoundedBlockingQueue(int capacity);
+ *    public void enqueue(T item) throws InterruptedException;
+ *    public T dequeue() throws InterruptedException;
+ *    public int size();
+ *
+ * plus non-blocking offer(item) / poll().
+ *
+ * Why?
+ *    Versions B/C still take a ReentrantLock on every call. At high core counts the lock handoff
+ *    (park/unpark of the next owner) dominates p99 latency, not the queue work itself.
+ *
+ * Design (Dmitry Vyukov's bounded MPMC queue):
+ *    •	Ring of N slots (N = capacity rounded up to a power of two, at least 2), each slot has its own sequence number
+ *    •	seq == pos        → slot is free for the producer that claims ticket pos
+ *    •	seq == pos + 1    → slot is filled for the consumer that claims ticket pos
+ *    •	Producers CAS-claim tail, consumers CAS-claim head, and then only touch their own slot
+ *    •	A producer claims ticket pos only while pos - head < capacity, so exactly capacity items fit
+ *    	even when the ring is larger (skipped when capacity == N: the slot sequence already says full)
+ *    •	Publishing the item = volatile write of the slot sequence (release)
+ *    •	head and tail are padded so producers and consumers do not false-share one cache line
+ *
+ * Blocking without locks (adaptive waiting):
+ *    1.	Thread.onSpinWait() for a few iterations    → handoff in nanoseconds when the other side is running
+ *    2.	Thread.yield()                               → give the CPU away but stay runnable
+ *    3.	register in a waiter slot, re-try once, LockSupport.park()
+ *    Each side has a waiter count and a fixed array of parked-thread slots: registering is a CAS of
+ *    a free slot, leaving is a CAS back to null (no allocation, no list scan). The other side unparks
+ *    one waiter after every successful operation, only if the count is non-zero (one volatile read on
+ *    the fast path). Register-then-retry closes the lost-wakeup window, and the park is timed as a
+ *    safety net (it is also all a waiter gets when every slot is taken).
+ *
+ * Note: null items are not allowed (null = empty).
+ */
+public class LockFreeBoundedBlockingQueue<T> {
+    private static final int MAX_CAPACITY = 1 << 30;
+    private static final int SPIN_LIMIT = 64;
+    private static final int YIELD_LIMIT = SPIN_LIMIT + 16;
+    private static final long MAX_PARK_NANOS = 1_000_000L;   // 1 ms safety net against missed unparks
+    private static final int WAITER_SLOTS = 32;               // promptly woken waiters per side
+
+    private final Object[] items;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final int capacity;
+
+    private final PaddedAtomicLong head = new PaddedAtomicLong();   // next ticket to dequeue
+    private final PaddedAtomicLong tail = new PaddedAtomicLong();   // next ticket to enqueue
+
+    private final Waiters waitingProducers = new Waiters();
+    private final Waiters waitingConsumers = new Waiters();
+
+    public LockFreeBoundedBlockingQueue(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be in (0, " + MAX_CAPACITY + "]");
+        }
+        int length = Math.max(2, Integer.highestOneBit(capacity));
+        if (length < capacity) length <<= 1;   // round up to power of two; the bound is enforced in offer
+        this.capacity = capacity;
+        this.items = new Object[length];
+        this.sequences = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = length - 1;
+    }
+
+    // ------------ ENQUEUE (BLOCKING) ------------
+    public void enqueue(T item) throws InterruptedException {
+        Objects.requireNonNull(item);
+        int attempts = 0;
+        while (!offer(item)) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (attempts < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else if (attempts < YIELD_LIMIT) {
+                Thread.yield();
+            } else {
+                Thread me = Thread.currentThread();
+                int slot = waitingProducers.register(me);
+                try {
+                    if (offer(item)) return;   // re-check after registering: no lost wakeup
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                } finally {
+                    waitingProducers.deregister(slot, me);
+                }
+                continue;
+            }
+            attempts++;
+        }
+    }
+
+    // ------------ DEQUEUE (BLOCKING) ------------
+    public T dequeue() throws InterruptedException {
+        int attempts = 0;
+        T item;
+        while ((item = poll()) == null) {
+            if (Thread.interrupted()) throw new InterruptedException();
+            if (attempts < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else if (attempts < YIELD_LIMIT) {
+                Thread.yield();
+            } else {
+                Thread me = Thread.currentThread();
+                int slot = waitingConsumers.register(me);
+                try {
+                    if ((item = poll()) != null) return item;
+                    LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                } finally {
+                    waitingConsumers.deregister(slot, me);
+                }
+                continue;
+            }
+            attempts++;
+        }
+        return item;
+    }
+
+    // ------------ OFFER (NON-BLOCKING) ------------
+    public boolean offer(T item) {
+        Objects.requireNonNull(item);
+        long pos = tail.get();
+        int index;
+        while (true) {
+            index = (int) pos & mask;
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (capacity != mask + 1 && pos - head.get() >= capacity) {
+                    return false;                              // ring has room, but capacity items are queued
+                }
+                if (tail.compareAndSet(pos, pos + 1)) break;   // slot claimed
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false;                                  // slot still holds last lap's item → full
+            } else {
+                pos = tail.get();                              // another producer got ahead, reload
+            }
+        }
+        items[index] = item;
+        sequences.set(index, pos + 1);                         // publish to consumers
+        waitingConsumers.wakeOne();
+        return true;
+    }
+
+    // ------------ POLL (NON-BLOCKING) ------------
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long pos = head.get();
+        int index;
+        while (true) {
+            index = (int) pos & mask;
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) break;
+                pos = head.get();
+            } else if (diff < 0) {
+                return null;                                   // slot not yet filled → empty
+            } else {
+                pos = head.get();
+            }
+        }
+        T item = (T) items[index];
+        items[index] = null;
+        sequences.set(index, pos + mask + 1);                  // free the slot for the next lap
+        waitingProducers.wakeOne();
+        return item;
+    }
+
+    public int size() {
+        // head/tail are read separately, so retry until we see a consistent pair
+        while (true) {
+            long h = head.get();
+            long t = tail.get();
+            if (head.get() == h) {
+                return (int) Math.max(0, Math.min(t - h, capacity));
+            }
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Parked threads of one side: a count for the fast path plus WAITER_SLOTS thread slots.
+     * count is the number of occupied slots; whoever empties a slot (waker or the waiter itself) decrements it.
+     */
+    private static final class Waiters {
+        private final AtomicInteger count = new AtomicInteger();
+        private final AtomicReferenceArray<Thread> slots = new AtomicReferenceArray<>(WAITER_SLOTS);
+
+        /**
+         * Returns the slot taken, or -1 if all are taken (the caller then relies on its timed park).
+         */
+        int register(Thread me) {
+            int start = (int) me.threadId() & (WAITER_SLOTS - 1);
+            for (int i = 0; i < WAITER_SLOTS; i++) {
+                int slot = (start + i) & (WAITER_SLOTS - 1);
+                if (slots.get(slot) == null && slots.compareAndSet(slot, null, me)) {
+                    count.incrementAndGet();    // after the slot: a waker that sees the count finds the slot
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        void deregister(int slot, Thread me) {
+            if (slot >= 0 && slots.compareAndSet(slot, me, null)) {
+                count.decrementAndGet();        // not woken: free the slot ourselves
+            }
+        }
+
+        void wakeOne() {
+            if (count.get() == 0) return;   // fast path: nobody parked
+            for (int i = 0; i < WAITER_SLOTS; i++) {
+                Thread t = slots.get(i);
+                if (t != null && slots.compareAndSet(i, t, null)) {
+                    count.decrementAndGet();
+                    LockSupport.unpark(t);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * AtomicLong followed by 7 longs so head and tail never share a 64-byte cache line.
+     */
+    @SuppressWarnings("unused")
+    private static final class PaddedAtomicLong extends AtomicLong {
+        private static final long serialVersionUID = 1L;
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LockFreeBoundedBlockingQueue<Integer> queue = new LockFreeBoundedBlockingQueue<>(8);
+        final int PER_THREAD = 100_000;
+
+        Runnable producer = () -> {
+            try {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    queue.enqueue(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Runnable consumer = () -> {
+            try {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    queue.dequeue();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Thread[] threads = {
+                new Thread(producer, "Producer-1"),
+                new Thread(producer, "Producer-2"),
+                new Thread(consumer, "Consumer-1"),
+                new Thread(consumer, "Consumer-2")
+        };
+        long start = System.nanoTime();
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Moved " + (2 * PER_THREAD) + " items in " + elapsedMs + " ms");
+        System.out.println("Final Queue Size = " + queue.size());
+    }
+}
@@ -0,0 +1,152 @@
+package LockFreeStack;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * EliminationBackoffStack
+ *
+ * Treiber stack + elimination array (Hendler, Shavit, Yerushalmi).
+ * Same push / pop / isEmpty API as TreiberStack.
+ *
+ * Problem with plain TreiberStack: every thread CASes the SAME head reference.
+ * Past a few cores most CASes fail and threads just retry in a tight loop.
+ *
+ * Idea:
+ * - Try the head CAS once. If it fails, the head is contended → back off, but do it usefully:
+ * - Visit a random slot in an elimination array. A push that meets a pop there hands its value over directly.
+ *   push(x) followed by pop() returning x is a valid stack history, so both complete without touching head.
+ * - If nobody shows up within the wait budget, go back to the head CAS.
+ *
+ * Exponential backoff policy (per operation, kept in locals → no allocation):
+ * - wait budget starts at minSpins and doubles after every failed round, capped at maxSpins
+ * - range of the elimination array visited grows with contention (more slots = fewer collisions
+ *   between threads that cannot pair, e.g. push meets push)
+ */
+public class EliminationBackoffStack<T> {
+    private static class Node<E> {
+        final E value;
+        Node<E> next;
+        Node(E value) { this.value = value; }
+    }
+
+    private static final int DEFAULT_MIN_SPINS = 16;
+    private static final int DEFAULT_MAX_SPINS = 1 << 10;
+
+    private final AtomicReference<Node<T>> head = new AtomicReference<>(null);
+    private final Exchanger[] eliminationArray;
+    private final int minSpins;
+    private final int maxSpins;
+
+    public EliminationBackoffStack() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() / 2), DEFAULT_MIN_SPINS, DEFAULT_MAX_SPINS);
+    }
+
+    public EliminationBackoffStack(int eliminationSlots, int minSpins, int maxSpins) {
+        if (eliminationSlots <= 0 || minSpins <= 0 || maxSpins < minSpins) {
+            throw new IllegalArgumentException("eliminationSlots, minSpins must be > 0 and maxSpins >= minSpins");
+        }
+        this.eliminationArray = new Exchanger[eliminationSlots];
+        for (int i = 0; i < eliminationSlots; i++) {
+            eliminationArray[i] = new Exchanger();
+        }
+        this.minSpins = minSpins;
+        this.maxSpins = maxSpins;
+    }
+
+    public void push(T value) {
+        Node<T> newNode = new Node<>(value);   // allocated once, only next changes between retries
+        Object offer = value == null ? NULL_ITEM : value;
+        int spins = minSpins;
+        int range = 1;
+        while (true) {
+            Node<T> oldHead = head.get();
+            newNode.next = oldHead;
+            if (head.compareAndSet(oldHead, newNode)) return;
+
+            // head contended → try to eliminate against a concurrent pop
+            Object other = visit(offer, range, spins);
+            if (other == POP) return;          // a pop took our value
+            spins = Math.min(spins << 1, maxSpins);
+            range = Math.min(range + 1, eliminationArray.length);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        int spins = minSpins;
+        int range = 1;
+        while (true) {
+            Node<T> oldHead = head.get();
+            if (oldHead == null) return null;
+            if (head.compareAndSet(oldHead, oldHead.next)) return oldHead.value;
+
+            // head contended → try to receive a value straight from a concurrent push
+            Object other = visit(POP, range, spins);
+            if (other != POP && other != TIMED_OUT) {
+                return other == NULL_ITEM ? null : (T) other;
+            }
+            spins = Math.min(spins << 1, maxSpins);
+            range = Math.min(range + 1, eliminationArray.length);
+        }
+    }
+
+    public boolean isEmpty() {
+        return head.get() == null;
+    }
+
+    private Object visit(Object item, int range, int spins) {
+        int slot = ThreadLocalRandom.current().nextInt(range);
+        return eliminationArray[slot].exchange(item, spins);
+    }
+
+    // ---------------- ELIMINATION ----------------
+
+    private static final Object POP = new Object();        // what a pop offers
+    private static final Object NULL_ITEM = new Object();  // stands in for push(null)
+    private static final Object TIMED_OUT = new Object();  // no partner within the wait budget
+    private static final Object CANCELLED = new Object();  // waiter gave up, offer no longer matchable
+
+    /**
+     * One rendezvous slot. A thread either parks an Offer in the slot and spins for a partner,
+     * or finds an Offer already there and completes it with a single CAS.
+     */
+    private static final class Exchanger {
+        private final AtomicReference<Offer> slot = new AtomicReference<>();
+
+        Object exchange(Object myItem, int spins) {
+            Offer waiting = slot.get();
+            if (waiting == null) {
+                Offer mine = new Offer(myItem);
+                if (!slot.compareAndSet(null, mine)) return TIMED_OUT;   // lost the race for the slot
+                for (int i = 0; i < spins; i++) {
+                    Object m = mine.match;
+                    if (m != null) return m;       // partner already cleared the slot
+                    Thread.onSpinWait();
+                }
+                if (Offer.MATCH.compareAndSet(mine, null, CANCELLED)) {
+                    slot.compareAndSet(mine, null);
+                    return TIMED_OUT;
+                }
+                return mine.match;                 // matched between the last check and the cancel
+            }
+            if (Offer.MATCH.compareAndSet(waiting, null, myItem)) {
+                slot.compareAndSet(waiting, null);
+                return waiting.item;
+            }
+            slot.compareAndSet(waiting, null);     // help clear a cancelled/matched offer
+            return TIMED_OUT;
+        }
+    }
+
+    private static final class Offer {
+        static final AtomicReferenceFieldUpdater<Offer, Object> MATCH =
+                AtomicReferenceFieldUpdater.newUpdater(Offer.class, Object.class, "match");
+
+        final Object item;
+        volatile Object match;
+
+        Offer(Object item) { this.item = item; }
+    }
+}
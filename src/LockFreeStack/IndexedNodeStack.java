@@ -0,0 +1,120 @@
+package LockFreeStack;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IndexedNodeStack
+ *
+ * Shared skeleton for the primitive stacks (IntTreiberStack, LongTreiberStack).
+ * Subclasses own a values array; this class owns the links and both stack heads.
+ *
+ * - Node i is represented by next[i] (+ the subclass's values[i]). -1 = null.
+ * - head / freeHead are tagged longs: [ version (32 bits) | index (32 bits) ].
+ *   Every successful CAS bumps the version → ABA-safe, same trick as PooledTreiberStack.
+ * - All operations work on CHAINS of nodes, so moving k values costs one CAS on head
+ *   (plus one on freeHead) instead of k.
+ */
+abstract class IndexedNodeStack {
+    static final int NIL = -1;
+
+    final int[] next;
+    private final AtomicLong head = new AtomicLong(pack(0, NIL));
+    private final AtomicLong freeHead;
+
+    IndexedNodeStack(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.next = new int[capacity];
+        for (int i = 0; i < capacity - 1; i++) {
+            next[i] = i + 1;
+        }
+        next[capacity - 1] = NIL;
+        this.freeHead = new AtomicLong(pack(0, 0));   // every node starts on the free list
+    }
+
+    public boolean isEmpty() {
+        return index(head.get()) == NIL;
+    }
+
+    public int capacity() {
+        return next.length;
+    }
+
+    /**
+     * Takes exactly count nodes from the free list (linked through next[]).
+     * Returns the first node, or NIL if fewer than count are free.
+     */
+    final int allocate(int count) {
+        long r = popChain(freeHead, count, true);
+        return chainLength(r) == 0 ? NIL : chainFirst(r);
+    }
+
+    /** Returns the owned chain first..last to the free list. */
+    final void release(int first, int last) {
+        pushChain(freeHead, first, last);
+    }
+
+    /** Makes the owned chain first..last the new top of the stack (first = top). */
+    final void publish(int first, int last) {
+        pushChain(head, first, last);
+    }
+
+    /** Detaches up to max nodes from the top. Use chainLength / chainFirst on the result. */
+    final long take(int max) {
+        return popChain(head, max, false);
+    }
+
+    static int chainLength(long chain) {
+        return (int) (chain >>> 32);
+    }
+
+    static int chainFirst(long chain) {
+        return (int) chain;
+    }
+
+    // ---------------- TAGGED CHAIN PRIMITIVES ----------------
+
+    private void pushChain(AtomicLong top, int first, int last) {
+        while (true) {
+            long h = top.get();
+            next[last] = index(h);
+            if (top.compareAndSet(h, pack(version(h) + 1, first))) return;
+        }
+    }
+
+    private long popChain(AtomicLong top, int max, boolean exact) {
+        while (true) {
+            long h = top.get();
+            int first = index(h);
+            if (first == NIL) return pack(0, NIL);
+            // Walk up to max nodes. If another thread changes the stack meanwhile we may read stale
+            // links, but then the version differs and the CAS below fails.
+            int last = first;
+            int count = 1;
+            while (count < max) {
+                int n = next[last];
+                if (n == NIL) break;
+                last = n;
+                count++;
+            }
+            if (exact && count < max) {
+                if (top.get() == h) return pack(0, NIL);   // consistent view: really not enough nodes
+                continue;
+            }
+            if (top.compareAndSet(h, pack(version(h) + 1, next[last]))) {
+                return pack(count, first);
+            }
+        }
+    }
+
+    private static long pack(int high, int index) {
+        return ((long) high << 32) | (index & 0xFFFF_FFFFL);
+    }
+
+    private static int version(long tagged) {
+        return (int) (tagged >>> 32);
+    }
+
+    private static int index(long tagged) {
+        return (int) tagged;
+    }
+}
@@ -0,0 +1,72 @@
+package LockFreeStack;
+
+/**
+ * LongTreiberStack
+ *
+ * Lock-free stack of primitive longs: no boxing, no node allocation (fixed pool, see IndexedNodeStack).
+ * Long counterpart of IntTreiberStack (e.g. 64-bit IDs or packed handles).
+ *
+ * Semantics:
+ * - push: throws IllegalStateException if the pool has no free node.
+ * - pop(valueIfEmpty): primitives cannot be null, so the caller says what "empty" looks like (e.g. -1 for IDs).
+ * - pushAll / popInto: move a whole array with one CAS on head. pushAll is all-or-nothing and
+ *   leaves values[length - 1] on top, exactly as if pushed one by one.
+ */
+public class LongTreiberStack extends IndexedNodeStack {
+    private final long[] values;
+
+    public LongTreiberStack(int capacity) {
+        super(capacity);
+        this.values = new long[capacity];
+    }
+
+    public void push(long value) {
+        int node = allocate(1);
+        if (node == NIL) throw new IllegalStateException("Stack node pool exhausted");
+        values[node] = value;      // published by the head CAS
+        publish(node, node);
+    }
+
+    public long pop(long valueIfEmpty) {
+        long chain = take(1);
+        if (chainLength(chain) == 0) return valueIfEmpty;
+        int node = chainFirst(chain);
+        long v = values[node];
+        release(node, node);
+        return v;
+    }
+
+    public void pushAll(long[] src) {
+        if (src.length == 0) return;
+        int first = allocate(src.length);
+        if (first == NIL) throw new IllegalStateException("Stack node pool exhausted");
+        int node = first;
+        int last = first;
+        for (int i = src.length - 1; i >= 0; i--) {   // chain head = top = last element
+            values[node] = src[i];
+            last = node;
+            node = next[node];
+        }
+        publish(first, last);
+    }
+
+    /**
+     * Pops up to dst.length values into dst (dst[0] = former top). Returns how many were popped.
+     */
+    public int popInto(long[] dst) {
+        if (dst.length == 0) return 0;
+        long chain = take(dst.length);
+        int n = chainLength(chain);
+        if (n == 0) return 0;
+        int first = chainFirst(chain);
+        int node = first;
+        int last = first;
+        for (int i = 0; i < n; i++) {
+            dst[i] = values[node];
+            last = node;
+            node = next[node];
+        }
+        release(first, last);
+        return n;
+    }
+}
@@ -3,9 +3,33 @@ package LockFreeStack;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Usage: Main [treiber|elimination|pooled]   (default treiber)
+ */
 public class Main {
     public static void main(String[] args) throws Exception {
-        final TreiberStack<Integer> stack = new TreiberStack<>();
+        final Consumer<Integer> push;
+        final Supplier<Integer> pop;
+        final Supplier<Boolean> isEmpty;
+        if (args.length > 0 && args[0].equalsIgnoreCase("elimination")) {
+            EliminationBackoffStack<Integer> stack = new EliminationBackoffStack<>();
+            push = stack::push;
+            pop = stack::pop;
+            isEmpty = stack::isEmpty;
+        } else if (args.length > 0 && args[0].equalsIgnoreCase("pooled")) {
+            PooledTreiberStack<Integer> stack = new PooledTreiberStack<>(1 << 16);
+            push = stack::push;
+            pop = stack::pop;
+            isEmpty = stack::isEmpty;
+        } else {
+            TreiberStack<Integer> stack = new TreiberStack<>();
+            push = stack::push;
+            pop = stack::pop;
+            isEmpty = stack::isEmpty;
+        }
         final int PRODUCERS = 4;
         final int CONSUMERS = 4;
         final int OPS_PER_PRODUCER = 10000;
@@ -18,7 +42,7 @@ public class Main {
         for (int p = 0; p < PRODUCERS; p++) {
             ex.submit(() -> {
                 for (int i = 0; i < OPS_PER_PRODUCER; i++) {
-                    stack.push(produced.incrementAndGet());
+                    push.accept(produced.incrementAndGet());
                 }
             });
         }
@@ -27,7 +51,7 @@ public class Main {
         for (int c = 0; c < CONSUMERS; c++) {
             ex.submit(() -> {
                 while (consumed.get() < PRODUCERS * OPS_PER_PRODUCER) {
-                    Integer v = stack.pop();
+                    Integer v = pop.get();
                     if (v != null) {
                         consumed.incrementAndGet();
                     } else {
@@ -43,6 +67,6 @@ public class Main {
 
         System.out.println("Produced: " + produced.get());
         System.out.println("Consumed: " + consumed.get());
-        System.out.println("Stack empty: " + stack.isEmpty());
+        System.out.println("Stack empty: " + isEmpty.get());
     }
-}
\ No newline at end of file
+}
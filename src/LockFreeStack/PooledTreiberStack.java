@@ -0,0 +1,182 @@
+package LockFreeStack;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * PooledTreiberStack
+ *
+ * Allocation-free Treiber stack over a preallocated node pool, ABA-safe through a version-tagged head.
+ * Same push / pop / isEmpty API as TreiberStack, plus a non-throwing offer().
+ *
+ * Why?
+ * - TreiberStack allocates a Node per push (and again on every failed CAS, because next is final).
+ *   On a hot object-pooling path that is most of the young-gen garbage.
+ *
+ * Design:
+ * - Nodes are slots in parallel arrays: values[i], next[i]. A "pointer" is an int index (-1 = null).
+ * - head is ONE long: [ version (32 bits) | index (32 bits) ], updated with a single CAS.
+ *   Every successful CAS bumps the version, so A → B → A on the index no longer fools a stale CAS (ABA).
+ * - Free nodes live in a second tagged stack (freeHead) over the same arrays.
+ * - Each thread keeps a small local cache of free indices, so most push/pop pairs never touch freeHead.
+ * - Caches are registered per stack. When a thread has died its cache is returned to freeHead, once
+ *   allocate() finds freeHead empty and again whenever a new thread creates its cache. A terminated
+ *   thread can no longer touch its cache, and isAlive() == false makes all its writes visible.
+ *
+ * Notes:
+ * - Capacity is fixed. push() throws IllegalStateException when no free node is left; offer() returns false.
+ * - Limit: a LIVE thread that popped can keep up to LOCAL_CACHE_SIZE (32) free nodes in its cache, where
+ *   other threads cannot use them. With k such threads, offer() may fail while the stack holds as few as
+ *   capacity - 32 * k elements → size the pool as needed + 32 * (threads that pop).
+ * - The 32-bit version wraps after 2^32 updates; a stale CAS would need exactly that many concurrent
+ *   updates in between to succeed wrongly.
+ */
+public class PooledTreiberStack<T> {
+    private static final int NIL = -1;
+    private static final int LOCAL_CACHE_SIZE = 32;
+
+    private final Object[] values;
+    private final int[] next;
+
+    private final AtomicLong head = new AtomicLong(pack(0, NIL));
+    private final AtomicLong freeHead = new AtomicLong(pack(0, NIL));
+
+    private final ConcurrentLinkedQueue<LocalCache> caches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<LocalCache> localCache = ThreadLocal.withInitial(this::newLocalCache);
+
+    public PooledTreiberStack(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be > 0");
+        this.values = new Object[capacity];
+        this.next = new int[capacity];
+        for (int i = capacity - 1; i >= 0; i--) {
+            pushIndex(freeHead, i);
+        }
+    }
+
+    public void push(T value) {
+        if (!offer(value)) {
+            throw new IllegalStateException("Stack node pool exhausted");
+        }
+    }
+
+    /**
+     * Pushes value if a free node is available. Returns false when the pool is exhausted.
+     */
+    public boolean offer(T value) {
+        int node = allocate();
+        if (node == NIL) return false;
+        values[node] = value;          // published by the head CAS in pushIndex
+        pushIndex(head, node);
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    public T pop() {
+        int node = popIndex(head);
+        if (node == NIL) return null;
+        // the node is exclusively ours after a successful CAS
+        T v = (T) values[node];
+        values[node] = null;
+        release(node);
+        return v;
+    }
+
+    public boolean isEmpty() {
+        return index(head.get()) == NIL;
+    }
+
+    // ---------------- TAGGED STACK PRIMITIVES ----------------
+
+    private void pushIndex(AtomicLong top, int node) {
+        while (true) {
+            long h = top.get();
+            next[node] = index(h);
+            if (top.compareAndSet(h, pack(version(h) + 1, node))) return;
+        }
+    }
+
+    private int popIndex(AtomicLong top) {
+        while (true) {
+            long h = top.get();
+            int node = index(h);
+            if (node == NIL) return NIL;
+            // may read a stale next[] if node was popped and reused meanwhile: the version check rejects it
+            int successor = next[node];
+            if (top.compareAndSet(h, pack(version(h) + 1, successor))) return node;
+        }
+    }
+
+    private static long pack(int version, int index) {
+        return ((long) version << 32) | (index & 0xFFFF_FFFFL);
+    }
+
+    private static int version(long tagged) {
+        return (int) (tagged >>> 32);
+    }
+
+    private static int index(long tagged) {
+        return (int) tagged;
+    }
+
+    // ---------------- NODE POOL ----------------
+
+    private int allocate() {
+        LocalCache cache = localCache.get();
+        if (cache.size > 0) {
+            return cache.nodes[--cache.size];
+        }
+        int node = popIndex(freeHead);
+        if (node == NIL && reclaimDeadCaches()) {
+            node = popIndex(freeHead);
+        }
+        return node;
+    }
+
+    private void release(int node) {
+        LocalCache cache = localCache.get();
+        if (cache.size < LOCAL_CACHE_SIZE) {
+            cache.nodes[cache.size++] = node;
+        } else {
+            pushIndex(freeHead, node);
+        }
+    }
+
+    private LocalCache newLocalCache() {
+        reclaimDeadCaches();        // keeps the registry at about one cache per live thread
+        LocalCache cache = new LocalCache(Thread.currentThread());
+        caches.add(cache);
+        return cache;
+    }
+
+    /**
+     * Moves the nodes cached by terminated threads back to freeHead. Returns true if any were found.
+     */
+    private boolean reclaimDeadCaches() {
+        boolean found = false;
+        for (LocalCache cache : caches) {
+            // remove() succeeds for exactly one reclaiming thread
+            if (!cache.owner.isAlive() && caches.remove(cache)) {
+                for (int i = 0; i < cache.size; i++) {
+                    pushIndex(freeHead, cache.nodes[i]);
+                }
+                found |= cache.size > 0;
+                cache.size = 0;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Per-thread stash of free node indices. Only touched by its owning thread → no synchronization
+     * (and by reclaimDeadCaches once the owner has terminated).
+     */
+    private static final class LocalCache {
+        final Thread owner;
+        final int[] nodes = new int[LOCAL_CACHE_SIZE];
+        int size;
+
+        LocalCache(Thread owner) {
+            this.owner = owner;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package Metrics;
+
+import jdk.jfr.FlightRecorder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ContentionProfile
+ *
+ * Opt-in contention statistics for one mode of one synchronizer ("config-lock" / "write",
+ * "phase-barrier" / "await", ...). The synchronizer owns the profile and reports into it; it only does so
+ * (and only calls System.nanoTime) while profiling is enabled, so an unprofiled lock pays one null check.
+ *
+ * What is recorded:
+ * - acquisitions: successful acquires; contended: those that had to block first; failed: timeouts,
+ *   interrupts, broken barriers.
+ * - waitTime: call → acquired, in a LatencyHistogram (includes time spent on the internal lock).
+ * - holdTime: acquired → released (outermost hold for reentrant locks).
+ * - queueLength: threads blocked in this mode right now.
+ * All counters are LongAdders / LatencyHistograms: recording never takes a lock and never allocates.
+ *
+ * Reading it:
+ * - snapshot() on one profile, or snapshotAll() over every registered profile, worst wait p99 first
+ *   → the lock that is hurting p99 is at the top.
+ * - JFR: while a recording runs, AdvanceJava.ContentionStats is emitted every second per profile, and
+ *   AdvanceJava.ContentionWait (with stack trace) for every wait of at least the event threshold.
+ */
+public final class ContentionProfile {
+    private static final List<ContentionProfile> REGISTRY = new CopyOnWriteArrayList<>();
+    private static volatile long eventThresholdNanos = TimeUnit.MILLISECONDS.toNanos(1);
+
+    static {
+        FlightRecorder.addPeriodicEvent(ContentionStatsEvent.class, ContentionProfile::emitStats);
+    }
+
+    private final String name;
+    private final String mode;
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder queueLength = new LongAdder();
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram holdTime = new LatencyHistogram();
+
+    private ContentionProfile(String name, String mode) {
+        this.name = name;
+        this.mode = mode;
+    }
+
+    /**
+     * Creates a profile and adds it to the registry (snapshotAll, JFR).
+     */
+    public static ContentionProfile register(String name, String mode) {
+        ContentionProfile profile = new ContentionProfile(name, mode);
+        REGISTRY.add(profile);
+        return profile;
+    }
+
+    public void unregister() {
+        REGISTRY.remove(this);
+    }
+
+    /**
+     * Waits shorter than this are not emitted as ContentionWait JFR events (default 1 ms).
+     */
+    public static void setEventThreshold(long threshold, TimeUnit unit) {
+        if (threshold < 0) throw new IllegalArgumentException("threshold must be >= 0");
+        eventThresholdNanos = unit.toNanos(threshold);
+    }
+
+    /**
+     * Snapshots of every registered profile, highest wait p99 first.
+     */
+    public static List<Snapshot> snapshotAll() {
+        List<Snapshot> all = new ArrayList<>();
+        for (ContentionProfile profile : REGISTRY) {
+            all.add(profile.snapshot());
+        }
+        all.sort(Comparator.comparingLong((Snapshot s) -> s.getWaitTime().getP99()).reversed());
+        return all;
+    }
+
+    // ---------------- RECORDING (called by the profiled synchronizer) ----------------
+
+    /**
+     * The calling thread is about to block.
+     */
+    public void enqueue() {
+        queueLength.increment();
+    }
+
+    /**
+     * The calling thread stopped blocking (whatever the outcome).
+     */
+    public void dequeue() {
+        queueLength.decrement();
+    }
+
+    public void acquired(long waitNanos, boolean wasContended) {
+        acquisitions.increment();
+        if (wasContended) {
+            contended.increment();
+        }
+        waitTime.record(waitNanos);
+        if (waitNanos >= eventThresholdNanos) {
+            emitWait(waitNanos, true);
+        }
+    }
+
+    /**
+     * Timed out, interrupted or broken: counted and evented, but kept out of waitTime so the
+     * histogram describes successful acquisitions only.
+     */
+    public void failed(long waitNanos) {
+        failed.increment();
+        if (waitNanos >= eventThresholdNanos) {
+            emitWait(waitNanos, false);
+        }
+    }
+
+    public void released(long holdNanos) {
+        holdTime.record(holdNanos);
+    }
+
+    // ---------------- READING ----------------
+
+    public String getName() {
+        return name;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public void reset() {
+        acquisitions.reset();
+        contended.reset();
+        failed.reset();
+        waitTime.reset();
+        holdTime.reset();
+    }
+
+    public Snapshot snapshot() {
+        return new Snapshot(name, mode, acquisitions.sum(), contended.sum(), failed.sum(),
+                Math.max(0L, queueLength.sum()), waitTime.snapshot(), holdTime.snapshot());
+    }
+
+    private void emitWait(long waitNanos, boolean acquired) {
+        ContentionWaitEvent event = new ContentionWaitEvent();
+        if (event.isEnabled()) {
+            event.name = name;
+            event.mode = mode;
+            event.waitTime = waitNanos;
+            event.acquired = acquired;
+            event.queueLength = queueLength.sum();
+            event.commit();
+        }
+    }
+
+    private static void emitStats() {
+        for (ContentionProfile profile : REGISTRY) {
+            Snapshot s = profile.snapshot();
+            ContentionStatsEvent event = new ContentionStatsEvent();
+            event.name = s.name;
+            event.mode = s.mode;
+            event.acquisitions = s.acquisitions;
+            event.contended = s.contended;
+            event.failed = s.failed;
+            event.queueLength = s.queueLength;
+            event.waitP99 = s.waitTime.getP99();
+            event.waitMax = s.waitTime.getMax();
+            event.holdP99 = s.holdTime.getP99();
+            event.commit();
+        }
+    }
+
+    /**
+     * Point-in-time view of a profile. Times are nanoseconds.
+     */
+    public static final class Snapshot {
+        private final String name;
+        private final String mode;
+        private final long acquisitions;
+        private final long contended;
+        private final long failed;
+        private final long queueLength;
+        private final LatencyHistogram.Snapshot waitTime;
+        private final LatencyHistogram.Snapshot holdTime;
+
+        Snapshot(String name, String mode, long acquisitions, long contended, long failed, long queueLength,
+                 LatencyHistogram.Snapshot waitTime, LatencyHistogram.Snapshot holdTime) {
+            this.name = name;
+            this.mode = mode;
+            this.acquisitions = acquisitions;
+            this.contended = contended;
+            this.failed = failed;
+            this.queueLength = queueLength;
+            this.waitTime = waitTime;
+            this.holdTime = holdTime;
+        }
+
+        public String getName() { return name; }
+        public String getMode() { return mode; }
+        public long getAcquisitions() { return acquisitions; }
+        public long getContended() { return contended; }
+        public long getFailed() { return failed; }
+        public long getQueueLength() { return queueLength; }
+        public LatencyHistogram.Snapshot getWaitTime() { return waitTime; }
+        public LatencyHistogram.Snapshot getHoldTime() { return holdTime; }
+
+        @Override
+        public String toString() {
+            return String.format("%s/%s acquisitions=%d contended=%d failed=%d queued=%d%n  wait: %s%n  hold: %s",
+                    name, mode, acquisitions, contended, failed, queueLength, waitTime, holdTime);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Periodic JFR event: one per registered ContentionProfile per period, cumulative since profiling started.
+ */
+@Name("AdvanceJava.ContentionStats")
+@Label("Contention Statistics")
+@Category({"AdvanceJava", "Contention"})
+@Description("Acquisition counts, queue length and wait/hold percentiles of a profiled lock or barrier")
+@Period("1 s")
+@StackTrace(false)
+final class ContentionStatsEvent extends Event {
+    @Label("Name")
+    String name;
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Acquisitions")
+    long acquisitions;
+
+    @Label("Contended")
+    long contended;
+
+    @Label("Failed")
+    long failed;
+
+    @Label("Queue Length")
+    long queueLength;
+
+    @Label("Wait p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitP99;
+
+    @Label("Wait Max")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitMax;
+
+    @Label("Hold p99")
+    @Timespan(Timespan.NANOSECONDS)
+    long holdP99;
+}
@@ -0,0 +1,38 @@
+package Metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * JFR event for one long wait on a profiled lock or barrier (see ContentionProfile.setEventThreshold).
+ * Committed when the wait ends, so the wait itself is in waitTime rather than in the event duration.
+ */
+@Name("AdvanceJava.ContentionWait")
+@Label("Contention Wait")
+@Category({"AdvanceJava", "Contention"})
+@Description("A thread waited longer than the threshold for a profiled lock or barrier")
+@StackTrace(true)
+final class ContentionWaitEvent extends Event {
+    @Label("Name")
+    String name;
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+
+    @Label("Acquired")
+    @Description("false if the wait timed out, was interrupted or the barrier broke")
+    boolean acquired;
+
+    @Label("Queue Length")
+    @Description("Threads waiting on the same lock mode when this wait ended")
+    long queueLength;
+}
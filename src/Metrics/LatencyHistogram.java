@@ -0,0 +1,143 @@
+package Metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram
+ *
+ * Concurrent, allocation-free latency histogram with HDR-style log-linear buckets.
+ *
+ * Buckets:
+ * - values 0..31 ns get one exact bucket each
+ * - above that, every power of two [2^k, 2^(k+1)) is split into 16 equal sub-buckets
+ *   → relative error of any reported percentile is at most 1/16 (~6%), over the whole long range
+ * - 960 buckets total (~7.5 KB), fixed at construction
+ *
+ * record() is one bucket-index computation + one atomic bucket increment + two striped adders
+ * (count, sum) + one striped max accumulator: no locks, no allocation, safe from any number of threads.
+ * snapshot() reads the counters without stopping writers, so a snapshot taken under load is
+ * approximate (each counter is exact on its own).
+ */
+public final class LatencyHistogram {
+    private static final int LINEAR_BITS = 5;                       // 0..31 exact
+    private static final int SUB_BUCKET_BITS = LINEAR_BITS - 1;     // 16 sub-buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BUCKETS = 1 << LINEAR_BITS;
+    private static final int BUCKETS = LINEAR_BUCKETS + (63 - LINEAR_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Records one value in nanoseconds. Negative values (clock skew) are recorded as 0.
+     */
+    public void record(long nanos) {
+        long v = Math.max(0L, nanos);
+        counts.incrementAndGet(bucketIndex(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0L);
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long maxValue = max.get();
+        // a bucket's upper bound can overshoot the largest value actually recorded
+        return new Snapshot(total, sum.sum(), maxValue,
+                Math.min(maxValue, percentile(copy, total, 0.50)),
+                Math.min(maxValue, percentile(copy, total, 0.90)),
+                Math.min(maxValue, percentile(copy, total, 0.99)),
+                Math.min(maxValue, percentile(copy, total, 0.999)));
+    }
+
+    static int bucketIndex(long v) {
+        if (v < LINEAR_BUCKETS) return (int) v;
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int shift = msb - SUB_BUCKET_BITS;
+        int sub = (int) (v >>> shift) - SUB_BUCKETS;                // 0..15
+        return LINEAR_BUCKETS + (msb - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /** Largest value that falls into bucket index. */
+    static long bucketUpperBound(int index) {
+        if (index < LINEAR_BUCKETS) return index;
+        int group = (index - LINEAR_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = group + LINEAR_BITS - SUB_BUCKET_BITS;
+        return (((long) sub + 1) << shift) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double q) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return bucketUpperBound(i);
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+
+    /**
+     * Immutable view of a histogram. All values are nanoseconds.
+     */
+    public static final class Snapshot {
+        private final long count;
+        private final long sum;
+        private final long max;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+
+        Snapshot(long count, long sum, long max, long p50, long p90, long p99, long p999) {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.p999 = p999;
+        }
+
+        public long getCount() { return count; }
+        public long getMax() { return max; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP99() { return p99; }
+        public long getP999() { return p999; }
+
+        public double getMean() {
+            return count == 0 ? 0.0 : (double) sum / count;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.1fus p50=%dus p90=%dus p99=%dus p99.9=%dus max=%dus",
+                    count, getMean() / 1_000.0, micros(p50), micros(p90), micros(p99), micros(p999), micros(max));
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
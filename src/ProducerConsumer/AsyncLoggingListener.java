@@ -0,0 +1,129 @@
+package ProducerConsumer;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AsyncLoggingListener
+ *
+ * BufferEventListener that moves console output off the producer/consumer threads.
+ *
+ * Semantics:
+ * - Callers only format a line and offer() it to a bounded queue: never blocks, never touches stdout.
+ * - If the queue is full the line is dropped and counted (logging must not apply backpressure to the pipeline).
+ * - One daemon writer thread drains up to batchSize lines at a time and prints them with a single write.
+ * - close(): stops the writer after flushing everything still queued. A line logged concurrently with
+ *   close() is either written or counted as dropped, never silently lost.
+ */
+public class AsyncLoggingListener implements BufferEventListener, AutoCloseable {
+    private static final String CONSUMER_INDENT = "                     ";
+
+    private final BlockingQueue<String> lines;
+    private final int batchSize;
+    private final PrintStream out;
+    private final Thread writer;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed = false;
+
+    public AsyncLoggingListener() {
+        this(4096, 256, System.out);
+    }
+
+    public AsyncLoggingListener(int queueCapacity, int batchSize, PrintStream out) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("queueCapacity and batchSize must be > 0");
+        }
+        this.lines = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.out = out;
+        this.writer = new Thread(this::writeLoop, "AsyncLoggingListener-Writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void onProduced(int value) {
+        log(Thread.currentThread().getName() + "Produced: " + value);
+    }
+
+    @Override
+    public void onConsumed(int value) {
+        log(CONSUMER_INDENT + Thread.currentThread().getName() + "Consumed: " + value);
+    }
+
+    @Override
+    public void onProducedBatch(int count) {
+        log(Thread.currentThread().getName() + "Produced batch of " + count);
+    }
+
+    @Override
+    public void onConsumedBatch(int count) {
+        log(CONSUMER_INDENT + Thread.currentThread().getName() + "Consumed batch of " + count);
+    }
+
+    @Override
+    public void onShutdown() {
+        log("Buffer shutdown");
+    }
+
+    /**
+     * Number of lines dropped because the writer could not keep up.
+     */
+    public long droppedCount() {
+        return dropped.get();
+    }
+
+    private void log(String line) {
+        if (closed || !lines.offer(line)) {
+            dropped.incrementAndGet();
+        } else if (closed && lines.remove(line)) {
+            // close() raced with the offer: the writer may already have made its last pass, so take
+            // the line back (if the writer did not get it) and count it instead of leaving it behind
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void writeLoop() {
+        List<String> batch = new ArrayList<>(batchSize);
+        StringBuilder sb = new StringBuilder();
+        try {
+            while (!closed || !lines.isEmpty()) {
+                String first = lines.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                lines.drainTo(batch, batchSize - 1);
+                for (String line : batch) {
+                    sb.append(line).append(System.lineSeparator());
+                }
+                out.print(sb);      // one synchronized write per batch instead of per line
+                sb.setLength(0);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            out.flush();
+        }
+    }
+
+    /**
+     * Stops accepting lines (closed is set before anything else, so later log calls count as dropped),
+     * flushes what is queued and waits for the writer thread to finish.
+     * If the caller is interrupted while waiting, close() returns early with the interrupt flag set
+     * (the daemon writer still flushes in the background).
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
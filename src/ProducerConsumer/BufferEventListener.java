@@ -0,0 +1,27 @@
+package ProducerConsumer;
+
+/**
+ * BufferEventListener
+ *
+ * Optional hook for observing a SharedBuffer (logging, metrics, tracing).
+ *
+ * Contract:
+ * - Callbacks run on the producing/consuming thread, AFTER the buffer lock is released.
+ * - Implementations must be thread-safe and should return quickly (hand heavy work off, see AsyncLoggingListener).
+ * - All methods default to no-ops, so implementations override only what they need.
+ */
+public interface BufferEventListener {
+
+    /** Listener that ignores every event. Default for SharedBuffer. */
+    BufferEventListener NO_OP = new BufferEventListener() {};
+
+    default void onProduced(int value) {}
+
+    default void onConsumed(int value) {}
+
+    default void onProducedBatch(int count) {}
+
+    default void onConsumedBatch(int count) {}
+
+    default void onShutdown() {}
+}
@@ -1,35 +1,57 @@
 package ProducerConsumer;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Usage: Driver [platform|virtual] [producers] [consumers]
+ *
+ * Default is 2 producers + 2 consumers on platform threads.
+ * "virtual" starts every Producer/Consumer on its own virtual thread, so tens of thousands of them are cheap.
+ * SharedBuffer blocks only through ReentrantLock/Condition (no synchronized), so a virtual thread waiting in
+ * produce()/consume() unmounts from its carrier instead of pinning it.
+ */
 public class Driver {
     public static void main(String[] args) throws InterruptedException {
-
-        SharedBuffer buffer = new SharedBuffer(5);
-
-        Thread p1 = new Thread(new Producer(buffer, 1), "Producer-1");
-        Thread p2 = new Thread(new Producer(buffer, 2), "Producer-2");
-
-        Thread c1 = new Thread(new Consumer(buffer, 1), "Consumer-1");
-        Thread c2 = new Thread(new Consumer(buffer, 2), "Consumer-2");
-
-        p1.start();
-        p2.start();
-        c1.start();
-        c2.start();
+        boolean virtual = args.length > 0 && args[0].equalsIgnoreCase("virtual");
+        int producers = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        int consumers = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+
+        // Console logging happens on a background writer, not inside the buffer's lock
+        AsyncLoggingListener logger = new AsyncLoggingListener();
+        SharedBuffer buffer = new SharedBuffer(5, logger);
+
+        List<Thread> threads = new ArrayList<>(producers + consumers);
+        for (int i = 1; i <= producers; i++) {
+            threads.add(newThread(new Producer(buffer, i), "Producer-" + i, virtual));
+        }
+        for (int i = 1; i <= consumers; i++) {
+            threads.add(newThread(new Consumer(buffer, i), "Consumer-" + i, virtual));
+        }
+
+        for (Thread t : threads) {
+            t.start();
+        }
 
         Thread.sleep(3000);
 
         System.out.println("\n*** INITIATING SHUTDOWN ***\n");
         buffer.shutdown();
         // Interrupt producers and consumers to wake them if they are waiting
-        p1.interrupt();
-        p2.interrupt();
-        c1.interrupt();
-        c2.interrupt();
-        p1.join();
-        p2.join();
-        c1.join();
-        c2.join();
+        for (Thread t : threads) {
+            t.interrupt();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        logger.close();
 
         System.out.println("\nAll producers and consumers exited cleanly.");
     }
+
+    private static Thread newThread(Runnable task, String name, boolean virtual) {
+        return virtual
+                ? Thread.ofVirtual().name(name).unstarted(task)
+                : new Thread(task, name);
+    }
 }
@@ -1,7 +1,13 @@
 package ProducerConsumer;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Objects;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -14,8 +20,14 @@ public class SharedBuffer{
     private final Condition notFull = lock.newCondition();
     private final Condition notEmpty = lock.newCondition();
     private volatile boolean Shutdown = false;
+    // Called only AFTER the lock is released, so a slow listener never extends the critical section
+    private final BufferEventListener listener;
     public  SharedBuffer(int capacity){
+        this(capacity, BufferEventListener.NO_OP);
+    }
+    public  SharedBuffer(int capacity, BufferEventListener listener){
         this.capacity = capacity;
+        this.listener = Objects.requireNonNull(listener);
     }
     public void produce(int value) throws InterruptedException {
         lock.lock();
@@ -25,28 +37,110 @@ public class SharedBuffer{
             }
             if (Shutdown) return;
             buffer.add(value);
-            System.out.println(Thread.currentThread().getName()+"Produced: " + value);
-            notEmpty.signalAll();
+            // One item → one consumer. signalAll() here wakes every waiter (thundering herd),
+            // which collapses throughput once thousands of virtual threads are parked on the buffer
+            notEmpty.signal();
         } finally {
             lock.unlock();
         }
+        listener.onProduced(value);
     }
 
     public Integer consume() throws InterruptedException {
+        Integer value;
         lock.lock();
         try {
             while (buffer.isEmpty() && !Shutdown) {
                 notEmpty.await();
             }
             if (Shutdown && buffer.isEmpty()) return null;
-            Integer value = buffer.remove();
-            System.out.println("                     "+Thread.currentThread().getName()+"Consumed: " + value);
+            value = buffer.remove();
+            notFull.signal();
+        } finally {
+            lock.unlock();
+        }
+        listener.onConsumed(value);
+        return value;
+    }
+    // ---------------- BATCH OPERATIONS ----------------
+    // Move up to N items per lock acquisition and send one wakeup per batch.
+
+    /**
+     * Produces every value, blocking while the buffer is full.
+     * Returns how many values were accepted (fewer than values.size() only if shutdown happened).
+     */
+    public int produceAll(Collection<Integer> values) throws InterruptedException {
+        int accepted = 0;
+        Iterator<Integer> it = values.iterator();
+        lock.lock();
+        try {
+            while (it.hasNext()) {
+                while (buffer.size() == capacity && !Shutdown) {
+                    notFull.await();
+                }
+                if (Shutdown) break;
+                while (it.hasNext() && buffer.size() < capacity) {
+                    buffer.add(it.next());
+                    accepted++;
+                }
+                notEmpty.signalAll();
+            }
+        } finally {
+            lock.unlock();
+            if (accepted > 0) listener.onProducedBatch(accepted);
+        }
+        return accepted;
+    }
+
+    /**
+     * Moves up to maxElements available values into c without blocking.
+     * Returns the number of values moved.
+     */
+    public int drainTo(Collection<? super Integer> c, int maxElements) {
+        int n = 0;
+        lock.lock();
+        try {
+            while (n < maxElements && !buffer.isEmpty()) {
+                c.add(buffer.remove());
+                n++;
+            }
+            if (n > 0) {
+                notFull.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (n > 0) listener.onConsumedBatch(n);
+        return n;
+    }
+
+    /**
+     * Waits up to timeout for at least one value, then takes up to maxElements.
+     * Returns an empty list on timeout, and null (like consume()) once shutdown and drained.
+     */
+    public List<Integer> consumeBatch(int maxElements, long timeout, TimeUnit unit) throws InterruptedException {
+        if (maxElements <= 0) throw new IllegalArgumentException("maxElements must be > 0");
+        long nanos = unit.toNanos(timeout);
+        List<Integer> batch;
+        lock.lock();
+        try {
+            while (buffer.isEmpty() && !Shutdown) {
+                if (nanos <= 0L) return List.of();
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            if (Shutdown && buffer.isEmpty()) return null;
+            batch = new ArrayList<>(Math.min(maxElements, buffer.size()));
+            while (batch.size() < maxElements && !buffer.isEmpty()) {
+                batch.add(buffer.remove());
+            }
             notFull.signalAll();
-            return value;
         } finally {
             lock.unlock();
         }
+        listener.onConsumedBatch(batch.size());
+        return batch;
     }
+
     public  void shutdown(){
         lock.lock();
         try {
@@ -56,6 +150,7 @@ public class SharedBuffer{
         } finally {
             lock.unlock();
         }
+        listener.onShutdown();
     }
 
 }
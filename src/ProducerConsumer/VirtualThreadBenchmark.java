@@ -0,0 +1,73 @@
+package ProducerConsumer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * VirtualThreadBenchmark
+ *
+ * Same SharedBuffer, same I/O-bound workload, two ways of running it:
+ * - platform: fixed pool of PLATFORM_POOL_SIZE platform threads
+ * - virtual:  one virtual thread per task (Executors.newVirtualThreadPerTaskExecutor)
+ *
+ * Each task does ROUNDS x { produce(v); simulated I/O (sleep); consume() }.
+ * A task only consumes after it produced, so the buffer can never be empty while everyone waits in consume():
+ * no deadlock regardless of pool size.
+ *
+ * Usage: VirtualThreadBenchmark [tasks] [rounds] [ioMillis]
+ * Tip: run with -Djdk.tracePinnedThreads=full (JDK 21-23) to confirm SharedBuffer never pins a carrier.
+ */
+public class VirtualThreadBenchmark {
+    private static final int PLATFORM_POOL_SIZE = 200;
+    private static final int BUFFER_CAPACITY = 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        int tasks = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        long ioMillis = args.length > 2 ? Long.parseLong(args[2]) : 10;
+
+        System.out.println("tasks=" + tasks + " rounds=" + rounds + " io=" + ioMillis + "ms");
+
+        // warm-up both paths once so JIT noise does not favour the second run
+        run("warm-up", Executors.newFixedThreadPool(PLATFORM_POOL_SIZE), 1_000, 1, 1);
+        run("warm-up", Executors.newVirtualThreadPerTaskExecutor(), 1_000, 1, 1);
+
+        run("platform(" + PLATFORM_POOL_SIZE + ")", Executors.newFixedThreadPool(PLATFORM_POOL_SIZE), tasks, rounds, ioMillis);
+        run("virtual", Executors.newVirtualThreadPerTaskExecutor(), tasks, rounds, ioMillis);
+    }
+
+    private static void run(String label, ExecutorService executor, int tasks, int rounds, long ioMillis)
+            throws InterruptedException {
+        SharedBuffer buffer = new SharedBuffer(BUFFER_CAPACITY);
+        AtomicLong consumed = new AtomicLong();
+
+        long start = System.nanoTime();
+        for (int t = 0; t < tasks; t++) {
+            final int id = t;
+            executor.execute(() -> {
+                try {
+                    for (int r = 0; r < rounds; r++) {
+                        buffer.produce(id);
+                        Thread.sleep(ioMillis);   // stands in for a blocking I/O call
+                        if (buffer.consume() != null) consumed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+        }
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        buffer.shutdown();
+
+        long items = consumed.get();
+        long opsPerSec = elapsedMs == 0 ? items : items * 1000 / elapsedMs;
+        System.out.printf("%-14s elapsed=%6d ms  items=%8d  throughput=%8d items/s%n",
+                label, elapsedMs, items, opsPerSec);
+    }
+}
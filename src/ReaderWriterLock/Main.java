@@ -35,5 +35,32 @@ public class Main {
         for (int i = 4; i <= 6; i++) {
             new Thread(readTask, "Reader-" + i).start();
         }
+
+        // Optimistic reads: a config pair that must always be seen consistently (b == 2 * a)
+        int[] config = {1, 2};
+        Runnable configReader = () -> {
+            try {
+                for (int i = 0; i < 5; i++) {
+                    int[] seen = rwLock.optimisticRead(() -> new int[]{config[0], config[1]});
+                    System.out.println(Thread.currentThread().getName() + " config a=" + seen[0] + " b=" + seen[1]
+                            + (seen[1] == 2 * seen[0] ? " (consistent)" : " (TORN!)"));
+                    Thread.sleep(300);
+                }
+            } catch (InterruptedException e) {}
+        };
+        Runnable configWriter = () -> {
+            try {
+                for (int i = 2; i <= 4; i++) {
+                    rwLock.lockWrite();
+                    config[0] = i;
+                    Thread.sleep(50);   // readers racing with this window fall back to the read lock
+                    config[1] = 2 * i;
+                    rwLock.unlockWrite();
+                    Thread.sleep(400);
+                }
+            } catch (InterruptedException e) {}
+        };
+        new Thread(configReader, "ConfigReader").start();
+        new Thread(configWriter, "ConfigWriter").start();
     }
 }
\ No newline at end of file
@@ -0,0 +1,103 @@
+package ReaderWriterLock;
+
+import java.util.Arrays;
+
+/**
+ * ReadHolds
+ *
+ * Per-thread read-hold counts for the reentrant read/write locks in this package and its subpackages.
+ *
+ * One ThreadLocal for the whole process (not one per lock, and no boxed Integer per hold): each thread
+ * owns a small table of (lock, count) pairs, compared by identity. A thread rarely holds more than one
+ * or two read locks at a time, so a linear scan over a packed array beats hashing, and after the table
+ * has grown once, acquiring and releasing read holds allocates nothing.
+ * An entry is removed as soon as its count drops to 0, so the table never keeps a lock reachable.
+ * Each entry also carries the time of its outermost acquire, for locks that profile hold times.
+ *
+ * Thread-confined: only the owning thread ever touches its table.
+ */
+public final class ReadHolds {
+    private static final ThreadLocal<ReadHolds> CURRENT = ThreadLocal.withInitial(ReadHolds::new);
+
+    private Object[] locks = new Object[4];
+    private int[] counts = new int[4];
+    private long[] since = new long[4];
+    private int size;
+
+    private ReadHolds() {
+    }
+
+    public static ReadHolds current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Read holds of the current thread on lock (0 if none).
+     */
+    public int get(Object lock) {
+        int i = indexOf(lock);
+        return i < 0 ? 0 : counts[i];
+    }
+
+    /**
+     * Records one more read hold on lock; returns the new count.
+     */
+    public int increment(Object lock) {
+        int i = indexOf(lock);
+        if (i < 0) {
+            if (size == locks.length) {
+                locks = Arrays.copyOf(locks, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+                since = Arrays.copyOf(since, size * 2);
+            }
+            i = size++;
+            locks[i] = lock;
+            counts[i] = 0;
+            since[i] = 0L;
+        }
+        return ++counts[i];
+    }
+
+    /**
+     * Releases one read hold on lock; returns the remaining count.
+     * Throws IllegalMonitorStateException if the current thread holds none.
+     */
+    public int decrement(Object lock) {
+        int i = indexOf(lock);
+        if (i < 0) {
+            throw new IllegalMonitorStateException("read lock not held by current thread");
+        }
+        int c = --counts[i];
+        if (c == 0) {
+            // swap-remove: keeps the table packed and drops the reference to lock
+            size--;
+            locks[i] = locks[size];
+            counts[i] = counts[size];
+            since[i] = since[size];
+            locks[size] = null;
+        }
+        return c;
+    }
+
+    /**
+     * Stores the System.nanoTime() of the outermost acquire of lock (which must be held).
+     */
+    public void setAcquiredAt(Object lock, long nanos) {
+        since[indexOf(lock)] = nanos;
+    }
+
+    /**
+     * The value stored by setAcquiredAt for lock (0 if never set or not held).
+     */
+    public long getAcquiredAt(Object lock) {
+        int i = indexOf(lock);
+        return i < 0 ? 0L : since[i];
+    }
+
+    private int indexOf(Object lock) {
+        for (int i = 0; i < size; i++) {
+            if (locks[i] == lock) return i;
+        }
+        return -1;
+    }
+}
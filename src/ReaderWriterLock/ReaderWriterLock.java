@@ -1,58 +1,356 @@
 package ReaderWriterLock;
 
+import Metrics.ContentionProfile;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
+/**
+ * ReaderWriterLock
+ *
+ * Read/write lock built on ReentrantLock + two Conditions, plus an optimistic read mode.
+ *
+ * Fairness policy (constructor option, see Policy):
+ * - READER_PREFERENCE (default): readers get in whenever no writer holds the lock. Best read throughput,
+ *   but a steady stream of readers can starve writers.
+ * - PHASE_FAIR: reader and writer phases alternate. A waiting writer blocks newly arriving readers; when
+ *   a writer releases, every reader queued behind it is let in together (one read phase) before the next
+ *   writer. A reader waits for at most one writer, a writer for at most one read phase plus the writers
+ *   ahead of it.
+ * - ADAPTIVE: reader preference while writers keep up; switches to phase-fair once MAX_READS_PAST_WRITER
+ *   readers have overtaken a queued writer (the writer queue stops draining), and back once a writer
+ *   releases with the writer queue empty.
+ * In every policy a releasing writer hands the lock directly to the readers queued behind it (they are
+ * counted in readers before they wake), so a writer cannot slip in ahead of the read phase it ended.
+ *
+ * Reentrancy and downgrading:
+ * - The write lock is reentrant (owner + hold count); the read lock is reentrant per thread
+ *   (counts kept in ReadHolds, no ThreadLocal per lock).
+ * - Downgrade: the writer may lockRead() while holding the write lock, then unlockWrite(); it keeps
+ *   reading with no gap in which another writer could get in.
+ * - Upgrade (lockWrite while holding only a read lock) would deadlock and throws IllegalStateException.
+ * - Unlocking a lock the current thread does not hold throws IllegalMonitorStateException.
+ *
+ * Try / timed acquisition: tryLockRead(), tryLockWrite() never wait; the timed variants wait with
+ * Condition.awaitNanos and return false on timeout, so callers can shed load instead of blocking.
+ *
+ * Contention profiling (opt-in, see enableProfiling): acquisitions, wait and hold time histograms and
+ * queue lengths per mode, as Metrics.ContentionProfile "name/read" and "name/write". Disabled, each
+ * acquire and release pays one volatile read; optimistic reads are never profiled.
+ *
+ * Optimistic reads (seqlock style):
+ * - version is even while no writer holds the lock and odd while one does; lockWrite and unlockWrite
+ *   each bump it once, under the internal lock. A store-store fence after the odd bump keeps the
+ *   writer's data writes from becoming visible before it.
+ * - tryOptimisticRead() returns the current version as a stamp (0 if a writer is active);
+ *   validate(stamp) is true iff no writer has acquired the lock since.
+ * - Both are a single volatile read: an optimistic reader never writes shared memory and never
+ *   touches the internal lock, so pure-read traffic does not serialize.
+ * - Data read optimistically may be torn; use it only after validate() succeeds, and fall back to
+ *   lockRead() when it fails (optimisticRead(...) does exactly that).
+ */
 public class ReaderWriterLock {
 
+    public enum Policy {
+        /** Readers enter whenever no writer holds the lock; writers can starve. */
+        READER_PREFERENCE,
+        /** Read and write phases alternate; neither side can starve. */
+        PHASE_FAIR,
+        /** Reader preference until queued writers stop making progress, then phase-fair. */
+        ADAPTIVE
+    }
+
+    /**
+     * ADAPTIVE: readers allowed past a queued writer before new readers start queuing behind it.
+     */
+    static final int MAX_READS_PAST_WRITER = 64;
+
+    private final Policy policy;
     private final Lock lock = new ReentrantLock();
 
     private final Condition canRead = lock.newCondition();
     private final Condition canWrite = lock.newCondition();
 
-    private int readers = 0;
+    private int readers = 0;        // read holds of all threads (reentrant holds counted individually)
     private int writers = 0;        // 0 or 1 (only one writer allowed)
     private int writeRequests = 0;  // number of writers waiting (for next version)
+    private Thread owner;           // writer thread, guarded by lock
+    private int writeHolds = 0;     // reentrant write holds of owner, guarded by lock
+    private volatile long version = 2;  // even: no writer, odd: writer holds the lock (0 is the "no stamp" value)
+    private int waitingReaders = 0; // readers parked in canRead, handed the lock by the next unlockWrite
+    private long readPhase = 0;     // bumped each time a writer hands the lock to the waiting readers
+    private boolean writersFirst;   // queued writers block new readers (PHASE_FAIR, or ADAPTIVE when switched)
+    private int readsPastWriter = 0;    // ADAPTIVE: readers admitted while a writer was queued
+    private long writeAcquiredAt;   // nanoTime of the outermost write acquire (profiling), guarded by lock
+    private volatile ContentionProfile readProfile;     // null unless profiling
+    private volatile ContentionProfile writeProfile;
+
+    public ReaderWriterLock() {
+        this(Policy.READER_PREFERENCE);
+    }
+
+    public ReaderWriterLock(Policy policy) {
+        if (policy == null) throw new NullPointerException("policy");
+        this.policy = policy;
+        this.writersFirst = policy == Policy.PHASE_FAIR;
+    }
+
+    public Policy getPolicy() {
+        return policy;
+    }
+
+    // ---------------- OPTIMISTIC READ ----------------
+
+    /**
+     * Returns a stamp for a later validate(), or 0 if a writer currently holds the lock.
+     */
+    public long tryOptimisticRead() {
+        long v = version;
+        return (v & 1L) == 0L ? v : 0L;
+    }
+
+    /**
+     * True if no writer has acquired the lock since stamp was issued.
+     * Always false for the 0 stamp.
+     */
+    public boolean validate(long stamp) {
+        VarHandle.acquireFence();   // keep the caller's data reads before the version re-read
+        return stamp != 0L && version == stamp;
+    }
+
+    /**
+     * Runs reader optimistically; if a writer interfered, runs it again under the read lock.
+     * reader must tolerate inconsistent state (no side effects, no exceptions from torn reads).
+     */
+    public <T> T optimisticRead(Supplier<T> reader) throws InterruptedException {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0L) {
+            T value = reader.get();
+            if (validate(stamp)) {
+                return value;
+            }
+        }
+        lockRead();
+        try {
+            return reader.get();
+        } finally {
+            unlockRead();
+        }
+    }
 
     // ---------------- READ LOCK ----------------
     public void lockRead() throws InterruptedException {
+        acquireRead(false, 0L);
+    }
+
+    /**
+     * Acquires the read lock only if the policy lets a reader in right now (or the caller already holds it).
+     */
+    public boolean tryLockRead() {
+        try {
+            return acquireRead(true, 0L);
+        } catch (InterruptedException ie) {
+            throw new AssertionError(ie);   // zero timeout never waits
+        }
+    }
+
+    public boolean tryLockRead(long timeout, TimeUnit unit) throws InterruptedException {
+        return acquireRead(true, unit.toNanos(timeout));
+    }
+
+    private boolean acquireRead(boolean timed, long nanos) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        ReadHolds holds = ReadHolds.current();
+        ContentionProfile profile = readProfile;
+        long start = profile != null ? System.nanoTime() : 0L;
+        boolean contended = false;
         lock.lock();
         try {
-            while (writers > 0) {         // writer active? readers wait
-                canRead.await();
+            if (owner == current || holds.get(this) > 0) {
+                readers++;          // downgrade or reentrant read: never wait behind writers
+            } else if (!readerMustWait()) {
+                admitReader();
+            } else {
+                contended = true;
+                if (!awaitReadPhase(timed, nanos, profile)) {
+                    if (profile != null) profile.failed(System.nanoTime() - start);
+                    return false;
+                }
             }
-            readers++;
+        } catch (InterruptedException ie) {
+            if (profile != null) profile.failed(System.nanoTime() - start);
+            throw ie;
         } finally {
             lock.unlock();
         }
+        int held = holds.increment(this);
+        if (profile != null) {
+            long now = System.nanoTime();
+            profile.acquired(now - start, contended);
+            if (held == 1) holds.setAcquiredAt(this, now);
+        }
+        return true;
+    }
+
+    /**
+     * Must hold lock.
+     */
+    private boolean readerMustWait() {
+        return writers > 0 || (writeRequests > 0 && writersFirst);
+    }
+
+    /**
+     * Must hold lock.
+     */
+    private void admitReader() {
+        readers++;
+        if (writeRequests > 0 && policy == Policy.ADAPTIVE && ++readsPastWriter >= MAX_READS_PAST_WRITER) {
+            writersFirst = true;    // the writer queue is not draining: alternate phases from now on
+        }
+    }
+
+    /**
+     * Waits in canRead until a releasing writer hands the lock over (it counts us in readers) or the
+     * policy lets readers in again. Must hold lock.
+     */
+    private boolean awaitReadPhase(boolean timed, long nanos, ContentionProfile profile) throws InterruptedException {
+        long phase = readPhase;
+        waitingReaders++;
+        if (profile != null) profile.enqueue();
+        try {
+            while (readPhase == phase) {
+                if (!readerMustWait()) {
+                    admitReader();
+                    return true;
+                }
+                if (!timed) {
+                    canRead.await();
+                } else if (nanos <= 0L) {
+                    return false;
+                } else {
+                    nanos = canRead.awaitNanos(nanos);
+                }
+            }
+            return true;            // handed over by unlockWrite
+        } catch (InterruptedException ie) {
+            if (readPhase != phase) {
+                releaseRead();      // handed over, but the caller will never unlock: give it back
+            }
+            throw ie;
+        } finally {
+            if (readPhase == phase) {
+                waitingReaders--;   // unlockWrite already reset the count if it handed over
+            }
+            if (profile != null) profile.dequeue();
+        }
     }
 
     public void unlockRead() {
+        ReadHolds holds = ReadHolds.current();
+        ContentionProfile profile = readProfile;
+        long acquiredAt = profile != null ? holds.getAcquiredAt(this) : 0L;
+        int held = holds.decrement(this);       // throws if the current thread holds no read lock
         lock.lock();
         try {
-            readers--;
-            if (readers == 0) {
-                canWrite.signal();  // if no readers left → writer can run
-            }
+            releaseRead();
         } finally {
             lock.unlock();
         }
+        if (held == 0 && profile != null && acquiredAt != 0L) {
+            profile.released(System.nanoTime() - acquiredAt);
+        }
+    }
+
+    /**
+     * Must hold lock.
+     */
+    private void releaseRead() {
+        readers--;
+        if (readers == 0) {
+            canWrite.signal();  // if no readers left → writer can run
+        }
     }
 
     // ---------------- WRITE LOCK ----------------
     public void lockWrite() throws InterruptedException {
-        lock.lock();
+        acquireWrite(false, 0L);
+    }
+
+    /**
+     * Acquires the write lock only if it is free (or already held by the current thread) right now.
+     */
+    public boolean tryLockWrite() {
         try {
-            writeRequests++;
+            return acquireWrite(true, 0L);
+        } catch (InterruptedException ie) {
+            throw new AssertionError(ie);   // zero timeout never waits
+        }
+    }
 
-            while (readers > 0 || writers > 0) {   // wait if any activity
-                canWrite.await();
+    public boolean tryLockWrite(long timeout, TimeUnit unit) throws InterruptedException {
+        return acquireWrite(true, unit.toNanos(timeout));
+    }
+
+    private boolean acquireWrite(boolean timed, long nanos) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        ContentionProfile profile = writeProfile;
+        long start = profile != null ? System.nanoTime() : 0L;
+        boolean contended = false;
+        lock.lock();
+        try {
+            if (owner == current) {
+                writeHolds++;       // reentrant write
+                if (profile != null) profile.acquired(System.nanoTime() - start, false);
+                return true;
+            }
+            if (ReadHolds.current().get(this) > 0) {
+                throw new IllegalStateException("read-to-write upgrade is not supported (would deadlock)");
             }
 
-            writeRequests--;
+            writeRequests++;
+            boolean acquired = false;
+            try {
+                while (readers > 0 || writers > 0) {   // wait if any activity
+                    if (!contended) {
+                        contended = true;
+                        if (profile != null) profile.enqueue();
+                    }
+                    if (!timed) {
+                        canWrite.await();
+                    } else if (nanos <= 0L) {
+                        return false;
+                    } else {
+                        nanos = canWrite.awaitNanos(nanos);
+                    }
+                }
+                acquired = true;
+            } finally {
+                writeRequests--;
+                if (!acquired) {    // timed out or interrupted: readers queued behind us may go now
+                    canRead.signalAll();
+                    canWrite.signal();
+                }
+                if (profile != null) {
+                    if (contended) profile.dequeue();
+                    if (!acquired) profile.failed(System.nanoTime() - start);
+                }
+            }
             writers = 1;
-
+            owner = current;
+            writeHolds = 1;
+            readsPastWriter = 0;
+            version++;      // odd: invalidates every outstanding optimistic stamp
+            // a volatile store only orders what came before it: keep the caller's data writes after the odd bump
+            VarHandle.storeStoreFence();
+            if (profile != null) {
+                writeAcquiredAt = System.nanoTime();
+                profile.acquired(writeAcquiredAt - start, contended);
+            }
+            return true;
         } finally {
             lock.unlock();
         }
@@ -61,14 +359,99 @@ public class ReaderWriterLock {
     public void unlockWrite() {
         lock.lock();
         try {
+            if (owner != Thread.currentThread()) {
+                throw new IllegalMonitorStateException("write lock not held by current thread");
+            }
+            if (--writeHolds > 0) {
+                return;     // still held reentrantly
+            }
+            owner = null;
             writers = 0;
+            version++;      // even again: new optimistic reads may start
+            ContentionProfile profile = writeProfile;
+            if (profile != null && writeAcquiredAt != 0L) {
+                profile.released(System.nanoTime() - writeAcquiredAt);
+            }
+            writeAcquiredAt = 0L;
+            if (policy == Policy.ADAPTIVE && writeRequests == 0) {
+                writersFirst = false;   // writers caught up: back to reader preference
+            }
+
+            if (waitingReaders > 0) {
+                // Give preference to readers in this version: everyone queued behind us is one read phase
+                readers += waitingReaders;
+                waitingReaders = 0;
+                readPhase++;
+                canRead.signalAll();
+            } else {
+                canWrite.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * True if the current thread holds the write lock.
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        lock.lock();
+        try {
+            return owner == Thread.currentThread();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read holds of the current thread on this lock.
+     */
+    public int getReadHoldCount() {
+        return ReadHolds.current().get(this);
+    }
+
+    // ---------------- PROFILING ----------------
 
-            // Give preference to readers in this version
-            canRead.signalAll();
-            canWrite.signal();
+    /**
+     * Starts recording contention statistics as name/read and name/write (see Metrics.ContentionProfile).
+     * Locks already held when profiling starts are counted from their next acquire on.
+     */
+    public void enableProfiling(String name) {
+        lock.lock();
+        try {
+            disableProfiling();
+            readProfile = ContentionProfile.register(name, "read");
+            writeProfile = ContentionProfile.register(name, "write");
+        } finally {
+            lock.unlock();
+        }
+    }
 
+    public void disableProfiling() {
+        lock.lock();
+        try {
+            if (readProfile != null) {
+                readProfile.unregister();
+                writeProfile.unregister();
+                readProfile = null;
+                writeProfile = null;
+            }
         } finally {
             lock.unlock();
         }
     }
+
+    /**
+     * The read-mode profile, or null if profiling is off.
+     */
+    public ContentionProfile getReadProfile() {
+        return readProfile;
+    }
+
+    /**
+     * The write-mode profile, or null if profiling is off.
+     */
+    public ContentionProfile getWriteProfile() {
+        return writeProfile;
+    }
 }
@@ -0,0 +1,111 @@
+package ReaderWriterLock;
+
+import Metrics.LatencyHistogram;
+import ReaderWriterLock.WriterPreference.ReaderWriterLockWriterPreference;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RwPolicyBenchmark
+ *
+ * Throughput and acquire latency of the fairness policies across read:write ratios.
+ * Every thread loops for a fixed time: with probability writePercent it writes (lockWrite, update a small
+ * array, unlockWrite), otherwise it reads (lockRead, sum the array, unlockRead). Latency is the time spent
+ * acquiring the lock, split by reads and writes, so starvation shows up as a write p99 blow-up.
+ *
+ * Usage: RwPolicyBenchmark [threads] [millisPerRun] [writePercent,...]
+ */
+public class RwPolicyBenchmark {
+
+    private interface RwLock {
+        void lockRead() throws InterruptedException;
+        void unlockRead() throws InterruptedException;
+        void lockWrite() throws InterruptedException;
+        void unlockWrite() throws InterruptedException;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : Math.max(4, Runtime.getRuntime().availableProcessors());
+        long millis = args.length > 1 ? Long.parseLong(args[1]) : 1000;
+        String[] writePercents = (args.length > 2 ? args[2] : "1,10,50").split(",");
+
+        System.out.println("threads=" + threads + " run=" + millis + " ms");
+        run(null, of(new ReaderWriterLock()), threads, millis, 10);     // warm-up
+        for (String w : writePercents) {
+            int writePercent = Integer.parseInt(w.trim());
+            System.out.println("---- read:write = " + (100 - writePercent) + ":" + writePercent + " ----");
+            for (ReaderWriterLock.Policy policy : ReaderWriterLock.Policy.values()) {
+                run(policy.name(), of(new ReaderWriterLock(policy)), threads, millis, writePercent);
+            }
+            run("WRITER_PREFERENCE", of(new ReaderWriterLockWriterPreference()), threads, millis, writePercent);
+        }
+    }
+
+    private static void run(String label, RwLock lock, int threads, long millis, int writePercent)
+            throws InterruptedException {
+        long[] data = new long[16];
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        LatencyHistogram readWait = new LatencyHistogram();
+        LatencyHistogram writeWait = new LatencyHistogram();
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+
+        Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                long sink = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        if (rnd.nextInt(100) < writePercent) {
+                            lock.lockWrite();
+                            writeWait.record(System.nanoTime() - start);
+                            for (int j = 0; j < data.length; j++) data[j]++;
+                            lock.unlockWrite();
+                            writes.increment();
+                        } else {
+                            lock.lockRead();
+                            readWait.record(System.nanoTime() - start);
+                            for (long v : data) sink += v;
+                            lock.unlockRead();
+                            reads.increment();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (sink == 42) System.out.print("");
+            }, "bench-" + i);
+            workers[i].start();
+        }
+        for (Thread t : workers) t.join();
+
+        if (label != null) {
+            LatencyHistogram.Snapshot r = readWait.snapshot();
+            LatencyHistogram.Snapshot w = writeWait.snapshot();
+            System.out.printf("%-18s %7.2f M ops/s  reads=%-9d writes=%-8d read p99=%8.1f µs  write p99=%8.1f µs  write max=%8.1f µs%n",
+                    label, (reads.sum() + writes.sum()) / (millis / 1e3) / 1e6, reads.sum(), writes.sum(),
+                    r.getP99() / 1e3, w.getP99() / 1e3, w.getMax() / 1e3);
+        }
+    }
+
+    private static RwLock of(ReaderWriterLock lock) {
+        return new RwLock() {
+            public void lockRead() throws InterruptedException { lock.lockRead(); }
+            public void unlockRead() { lock.unlockRead(); }
+            public void lockWrite() throws InterruptedException { lock.lockWrite(); }
+            public void unlockWrite() { lock.unlockWrite(); }
+        };
+    }
+
+    private static RwLock of(ReaderWriterLockWriterPreference lock) {
+        return new RwLock() {
+            public void lockRead() throws InterruptedException { lock.lockRead(); }
+            public void unlockRead() throws InterruptedException { lock.unlockRead(); }
+            public void lockWrite() throws InterruptedException { lock.lockWrite(); }
+            public void unlockWrite() throws InterruptedException { lock.unlockWrite(); }
+        };
+    }
+}
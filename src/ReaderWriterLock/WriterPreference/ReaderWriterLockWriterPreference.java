@@ -1,57 +1,254 @@
 package ReaderWriterLock.WriterPreference;
 
+import Metrics.ContentionProfile;
+import ReaderWriterLock.ReadHolds;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * ReaderWriterLockWriterPreference
+ *
+ * Writer-preference read/write lock with a distributed reader count.
+ *
+ * Reader indicator:
+ * - Instead of one shared readers int, active readers are counted in READER_SLOTS striped slots,
+ *   each on its own 128-byte block of an AtomicLongArray (no false sharing). A thread always uses the
+ *   slot picked by its thread id, so readers on different cores touch different cache lines.
+ * - The number of active readers is the sum of all slots; only writers ever compute it.
+ *
+ * Fast path (no writer active or waiting): lockRead / unlockRead are one atomic add on the reader's
+ * own slot plus one volatile read of writerGate. The internal lock is not touched.
+ *
+ * Writer preference (same rule as before: a waiting writer blocks new readers):
+ * - writerGate is 1 while writers > 0 || writeRequests > 0, and only changes under the lock.
+ * - A reader announces itself in its slot, then reads writerGate. If it is set, the reader backs
+ *   out and waits on canRead under the lock like the original version.
+ * - A writer sets writerGate, then scans the slots. Announce-then-check vs gate-then-scan: one of the
+ *   two always sees the other, so a writer never runs with a reader inside.
+ * - A reader leaving while writerGate is set takes the lock to signal the writer scanning for zero.
+ *
+ * Reentrancy and downgrading (per-thread read counts live in ReadHolds):
+ * - A thread that already holds a read lock, or holds the write lock, never waits behind the gate when it
+ *   reads again: waiting would deadlock it against the writer it is keeping out. That is also what makes
+ *   downgrading work: lockRead() while holding the write lock, then unlockWrite().
+ * - The write lock is reentrant; lockWrite while holding only a read lock throws IllegalStateException.
+ *
+ * Try / timed acquisition: tryLockRead(), tryLockWrite() and the timed variants (Condition.awaitNanos)
+ * return false instead of waiting past the deadline. A writer that gives up lowers the gate again and wakes
+ * the readers it was holding back.
+ *
+ * Contention profiling (opt-in, see enableProfiling) records the same statistics as ReaderWriterLock;
+ * disabled, the read fast path pays one extra volatile read.
+ */
 public class ReaderWriterLockWriterPreference {
+    private static final int PAD = 16;      // longs per slot = 128 bytes
+    private static final int READER_SLOTS = slotCount();
+
     private final Lock lock = new ReentrantLock();
     private final Condition canRead = lock.newCondition();
     private final Condition canWrite = lock.newCondition();
-    private int readers = 0;
+    private final AtomicLongArray readerSlots = new AtomicLongArray(READER_SLOTS * PAD);
+    private volatile int writerGate = 0;   // 1 while a writer is active or waiting
     private int writers = 0;        // 0 or 1 (only one writer allowed)
     private int writeRequests = 0;  // number of writers waiting
+    // Set and cleared under the lock; read without it only to ask "is it me?", which the owner's own
+    // writes answer correctly (a thread always sees what it wrote itself).
+    private Thread owner;
+    private int writeHolds = 0;     // reentrant write holds of owner, guarded by lock
+    private long writeAcquiredAt;   // nanoTime of the outermost write acquire (profiling), guarded by lock
+    private volatile ContentionProfile readProfile;     // null unless profiling
+    private volatile ContentionProfile writeProfile;
+
     // ---------------- READ LOCK ----------------
     public void lockRead() throws InterruptedException {
+        acquireRead(false, 0L);
+    }
+
+    /**
+     * Acquires the read lock only if no writer is active or waiting (or the caller already holds it).
+     */
+    public boolean tryLockRead() {
+        try {
+            return acquireRead(true, 0L);
+        } catch (InterruptedException ie) {
+            throw new AssertionError(ie);   // zero timeout never waits
+        }
+    }
+
+    public boolean tryLockRead(long timeout, TimeUnit unit) throws InterruptedException {
+        return acquireRead(true, unit.toNanos(timeout));
+    }
+
+    private boolean acquireRead(boolean timed, long nanos) throws InterruptedException {
+        ReadHolds holds = ReadHolds.current();
+        ContentionProfile profile = readProfile;
+        long start = profile != null ? System.nanoTime() : 0L;
+        int slot = mySlot();
+        readerSlots.getAndIncrement(slot);
+        if (writerGate == 0 || holds.get(this) > 0 || owner == Thread.currentThread()) {
+            readAcquired(holds, profile, start, false);  // fast path, reentrant read, or downgrade
+            return true;
+        }
+        // a writer is active or waiting: step back so its scan can reach zero, then queue up
+        departRead(slot);
+        boolean acquired = false;
         lock.lock();
+        if (profile != null) profile.enqueue();
         try {
             while (writers > 0 || writeRequests > 0) { // writer active or waiting? readers wait
-                canRead.await();
+                if (!timed) {
+                    canRead.await();
+                } else if (nanos <= 0L) {
+                    return false;
+                } else {
+                    nanos = canRead.awaitNanos(nanos);
+                }
             }
-            readers++;
+            readerSlots.getAndIncrement(slot);  // gate can only be raised under the lock we hold
+            acquired = true;
         } finally {
             lock.unlock();
+            if (profile != null) {
+                profile.dequeue();
+                if (!acquired) profile.failed(System.nanoTime() - start);
+            }
         }
+        readAcquired(holds, profile, start, true);
+        return true;
     }
+
+    private void readAcquired(ReadHolds holds, ContentionProfile profile, long start, boolean contended) {
+        int held = holds.increment(this);
+        if (profile != null) {
+            long now = System.nanoTime();
+            profile.acquired(now - start, contended);
+            if (held == 1) holds.setAcquiredAt(this, now);
+        }
+    }
+
     public void unlockRead() throws InterruptedException {
-        lock.lock();
-        try {
-            readers--;
-            if (readers == 0) {
-                canWrite.signal();  // if no readers left → writer can run
+        ReadHolds holds = ReadHolds.current();
+        ContentionProfile profile = readProfile;
+        long acquiredAt = profile != null ? holds.getAcquiredAt(this) : 0L;
+        int held = holds.decrement(this);       // throws if the current thread holds no read lock
+        departRead(mySlot());
+        if (held == 0 && profile != null && acquiredAt != 0L) {
+            profile.released(System.nanoTime() - acquiredAt);
+        }
+    }
+
+    private void departRead(int slot) {
+        readerSlots.getAndDecrement(slot);
+        if (writerGate != 0) {
+            lock.lock();
+            try {
+                canWrite.signal();  // a writer may be waiting for the readers to drain
+            } finally {
+                lock.unlock();
             }
-        } finally {
-            lock.unlock();
         }
     }
+
     // ---------------- WRITE LOCK ----------------
     public void lockWrite() throws InterruptedException {
+        acquireWrite(false, 0L);
+    }
+
+    /**
+     * Acquires the write lock only if there are no readers and no other writer right now.
+     */
+    public boolean tryLockWrite() {
+        try {
+            return acquireWrite(true, 0L);
+        } catch (InterruptedException ie) {
+            throw new AssertionError(ie);   // zero timeout never waits
+        }
+    }
+
+    public boolean tryLockWrite(long timeout, TimeUnit unit) throws InterruptedException {
+        return acquireWrite(true, unit.toNanos(timeout));
+    }
+
+    private boolean acquireWrite(boolean timed, long nanos) throws InterruptedException {
+        Thread current = Thread.currentThread();
+        ContentionProfile profile = writeProfile;
+        long start = profile != null ? System.nanoTime() : 0L;
+        boolean contended = false;
         lock.lock();
         try {
+            if (owner == current) {
+                writeHolds++;       // reentrant write
+                if (profile != null) profile.acquired(System.nanoTime() - start, false);
+                return true;
+            }
+            if (ReadHolds.current().get(this) > 0) {
+                throw new IllegalStateException("read-to-write upgrade is not supported (would deadlock)");
+            }
+
             writeRequests++;
-            while (readers > 0 || writers > 0) {   // wait if any activity
-                canWrite.await();
+            writerGate = 1;                         // new readers now take the slow path
+            boolean acquired = false;
+            try {
+                while (writers > 0 || activeReaders() > 0) {   // wait if any activity
+                    if (!contended) {
+                        contended = true;
+                        if (profile != null) profile.enqueue();
+                    }
+                    if (!timed) {
+                        canWrite.await();
+                    } else if (nanos <= 0L) {
+                        return false;
+                    } else {
+                        nanos = canWrite.awaitNanos(nanos);
+                    }
+                }
+                acquired = true;
+            } finally {
+                writeRequests--;
+                if (!acquired) {                    // timed out or interrupted: let the readers we held back in
+                    updateGate();
+                    canRead.signalAll();
+                    canWrite.signal();
+                }
+                if (profile != null) {
+                    if (contended) profile.dequeue();
+                    if (!acquired) profile.failed(System.nanoTime() - start);
+                }
             }
-            writeRequests--;
             writers = 1;
+            owner = current;
+            writeHolds = 1;
+            if (profile != null) {
+                writeAcquiredAt = System.nanoTime();
+                profile.acquired(writeAcquiredAt - start, contended);
+            }
+            return true;
         } finally {
             lock.unlock();
         }
     }
+
     public  void unlockWrite() throws InterruptedException {
         lock.lock();
         try {
+            if (owner != Thread.currentThread()) {
+                throw new IllegalMonitorStateException("write lock not held by current thread");
+            }
+            if (--writeHolds > 0) {
+                return;             // still held reentrantly
+            }
+            owner = null;
             writers = 0;
+            updateGate();
+            ContentionProfile profile = writeProfile;
+            if (profile != null && writeAcquiredAt != 0L) {
+                profile.released(System.nanoTime() - writeAcquiredAt);
+            }
+            writeAcquiredAt = 0L;
             if (writeRequests > 0) {
                 canWrite.signal(); // give preference to waiting writers
             } else {
@@ -61,10 +258,97 @@ public class ReaderWriterLockWriterPreference {
             lock.unlock();
         }
     }
+
+    /**
+     * True if the current thread holds the write lock.
+     */
+    public boolean isWriteLockedByCurrentThread() {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     * Read holds of the current thread on this lock.
+     */
+    public int getReadHoldCount() {
+        return ReadHolds.current().get(this);
+    }
+
+    // ---------------- PROFILING ----------------
+
+    /**
+     * Starts recording contention statistics as name/read and name/write (see Metrics.ContentionProfile).
+     */
+    public void enableProfiling(String name) {
+        lock.lock();
+        try {
+            disableProfiling();
+            readProfile = ContentionProfile.register(name, "read");
+            writeProfile = ContentionProfile.register(name, "write");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void disableProfiling() {
+        lock.lock();
+        try {
+            if (readProfile != null) {
+                readProfile.unregister();
+                writeProfile.unregister();
+                readProfile = null;
+                writeProfile = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The read-mode profile, or null if profiling is off.
+     */
+    public ContentionProfile getReadProfile() {
+        return readProfile;
+    }
+
+    /**
+     * The write-mode profile, or null if profiling is off.
+     */
+    public ContentionProfile getWriteProfile() {
+        return writeProfile;
+    }
+
+    /**
+     * Must hold lock.
+     */
+    private void updateGate() {
+        writerGate = (writers > 0 || writeRequests > 0) ? 1 : 0;
+    }
+
+    /**
+     * Sum of the reader slots. Only meaningful to a writer holding the lock with writerGate set.
+     */
+    private long activeReaders() {
+        long sum = 0;
+        for (int i = 0; i < READER_SLOTS; i++) {
+            sum += readerSlots.get(i * PAD);
+        }
+        return sum;
+    }
+
+    private static int mySlot() {
+        long id = Thread.currentThread().threadId();
+        int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;    // Fibonacci hashing spreads sequential ids
+        return ((h >>> 16) & (READER_SLOTS - 1)) * PAD;
+    }
+
+    private static int slotCount() {
+        int n = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+        return Integer.highestOneBit(n - 1) << 1;       // next power of two
+    }
 }
 /*
 “How did you ensure writers don’t starve?”
 “I maintain a writeRequests counter.
 If a writer is waiting, new readers are blocked, even if there is no active writer.
 This ensures writers eventually get exclusive access, removing starvation.”
- */
\ No newline at end of file
+ */
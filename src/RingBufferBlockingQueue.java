@@ -0,0 +1,172 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/*🚀 BoundedBlockingQueue — Version C: array ring buffer + two locks
+ *
+ * Same API as BoundedBlockingQueue:
+ *
+ *    public RingBufferBlockingQueue(int capacity);
+ *    public void enqueue(T item) throws InterruptedException;
+ *    public T dequeue() throws InterruptedException;
+ *    public int size();
+ *
+ * Problems with Version A/B under many producers + many consumers:
+ *    •	LinkedList allocates a node on every enqueue → GC churn
+ *    •	ONE monitor/lock for both ends → a producer blocks a consumer and vice versa
+ *    •	notifyAll() wakes every waiting thread (thundering herd)
+ *
+ * Design (LinkedBlockingQueue's two-lock idea, but array-backed):
+ *    •	Object[] preallocated once, length rounded up to a power of two
+ *      → index = counter & mask (no modulo, no allocation in steady state)
+ *    •	putLock guards tail, takeLock guards head
+ *      → producers only contend with producers, consumers only with consumers
+ *    •	AtomicInteger count is the only state shared between the two sides
+ *    •	notFull lives on putLock, notEmpty lives on takeLock, and we use signal() (one thread),
+ *      cascading the signal to the next waiter while there is still room / still items
+ *
+ * Why is it safe for the two sides to touch the array without a common lock?
+ *    •	A producer only writes slot[tail] when count < capacity, so that slot is free.
+ *    •	A consumer only reads slot[head] when count > 0, so that slot is filled.
+ *    •	count.getAndIncrement() / getAndDecrement() are volatile writes, which publish the slot
+ *      write (or the slot clear) to the other side (happens-before).
+ */
+public class RingBufferBlockingQueue<T> {
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final Object[] items;
+    private final int mask;
+    private final int capacity;
+
+    private int head = 0;   // next slot to take, guarded by takeLock
+    private int tail = 0;   // next slot to put,  guarded by putLock
+    private final AtomicInteger count = new AtomicInteger();
+
+    private final ReentrantLock putLock = new ReentrantLock();
+    private final Condition notFull = putLock.newCondition();
+
+    private final ReentrantLock takeLock = new ReentrantLock();
+    private final Condition notEmpty = takeLock.newCondition();
+
+    public RingBufferBlockingQueue(int capacity) {
+        if (capacity <= 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity must be in (0, " + MAX_CAPACITY + "]");
+        }
+        this.capacity = capacity;
+        int length = Integer.highestOneBit(capacity);
+        if (length < capacity) length <<= 1;   // round up to power of two
+        this.items = new Object[length];
+        this.mask = length - 1;
+    }
+
+    public void enqueue(T item) throws InterruptedException {
+        int c;
+        putLock.lockInterruptibly();
+        try {
+            while (count.get() == capacity) {
+                notFull.await();
+            }
+            items[tail] = item;
+            tail = (tail + 1) & mask;
+            c = count.getAndIncrement();
+            // Still room → let the next waiting producer in (cascading signal)
+            if (c + 1 < capacity) {
+                notFull.signal();
+            }
+        } finally {
+            putLock.unlock();
+        }
+        // Queue went empty → non-empty: only then do consumers need a wakeup
+        if (c == 0) {
+            signalNotEmpty();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T dequeue() throws InterruptedException {
+        T item;
+        int c;
+        takeLock.lockInterruptibly();
+        try {
+            while (count.get() == 0) {
+                notEmpty.await();
+            }
+            item = (T) items[head];
+            items[head] = null;     // let GC collect the item, the slot itself is reused
+            head = (head + 1) & mask;
+            c = count.getAndDecrement();
+            // Still items left → let the next waiting consumer in
+            if (c > 1) {
+                notEmpty.signal();
+            }
+        } finally {
+            takeLock.unlock();
+        }
+        // Queue went full → not-full: only then do producers need a wakeup
+        if (c == capacity) {
+            signalNotFull();
+        }
+        return item;
+    }
+
+    public int size() {
+        return count.get();
+    }
+
+    private void signalNotEmpty() {
+        takeLock.lock();
+        try {
+            notEmpty.signal();
+        } finally {
+            takeLock.unlock();
+        }
+    }
+
+    private void signalNotFull() {
+        putLock.lock();
+        try {
+            notFull.signal();
+        } finally {
+            putLock.unlock();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        RingBufferBlockingQueue<Integer> queue = new RingBufferBlockingQueue<>(5);
+        final int PER_THREAD = 100_000;
+
+        Runnable producer = () -> {
+            try {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    queue.enqueue(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Runnable consumer = () -> {
+            try {
+                for (int i = 0; i < PER_THREAD; i++) {
+                    queue.dequeue();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        Thread[] threads = {
+                new Thread(producer, "Producer-1"),
+                new Thread(producer, "Producer-2"),
+                new Thread(consumer, "Consumer-1"),
+                new Thread(consumer, "Consumer-2")
+        };
+        long start = System.nanoTime();
+        for (Thread t : threads) t.start();
+        for (Thread t : threads) t.join();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.println("Moved " + (2 * PER_THREAD) + " items in " + elapsedMs + " ms");
+        System.out.println("Final Queue Size = " + queue.size());
+    }
+}